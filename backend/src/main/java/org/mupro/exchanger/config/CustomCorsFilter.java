@@ -34,7 +34,8 @@ public class CustomCorsFilter implements Filter {
         
         response.setHeader("Access-Control-Allow-Methods", "GET, POST, PUT, DELETE, OPTIONS");
         response.setHeader("Access-Control-Max-Age", "3600");
-        response.setHeader("Access-Control-Allow-Headers", "x-requested-with, authorization, content-type");
+        response.setHeader("Access-Control-Allow-Headers", "x-requested-with, authorization, content-type, if-none-match");
+        response.setHeader("Access-Control-Expose-Headers", "ETag");
         response.setHeader("Access-Control-Allow-Credentials", "true");
         
         if ("OPTIONS".equalsIgnoreCase(request.getMethod())) {
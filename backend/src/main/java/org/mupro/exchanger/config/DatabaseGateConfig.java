@@ -0,0 +1,36 @@
+package org.mupro.exchanger.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Puts a {@link GatedDataSource} in front of the connection pool when {@code db.gate.enabled=true}
+ * (on in the "virtual" profile). Permits default to the Hikari pool size, so the gate queues exactly
+ * the callers the pool could not serve.
+ */
+@Configuration
+@ConditionalOnProperty(name = "db.gate.enabled", havingValue = "true")
+public class DatabaseGateConfig {
+
+    @Bean
+    public static BeanPostProcessor gatedDataSourcePostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof GatedDataSource) {
+                    return bean;
+                }
+                int poolSize = environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10);
+                int permits = environment.getProperty("db.gate.permits", Integer.class, poolSize);
+                Duration timeout = environment.getProperty("db.gate.acquire-timeout", Duration.class, Duration.ofSeconds(60));
+                return new GatedDataSource(dataSource, permits, timeout);
+            }
+        };
+    }
+}
@@ -1,9 +1,13 @@
 package org.mupro.exchanger.config;
 
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.mupro.exchanger.service.PrincipalCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -24,24 +28,44 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsService userDetailsService;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "anonymous";
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateToken(jwt)) {
-                String username = jwtUtils.extractUsername(jwt);
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            Claims claims = jwt != null ? jwtUtils.parseAccessClaims(jwt) : null;
+            if (claims != null) {
+                String username = claims.getSubject();
+                UserDetails userDetails = principalCache.get(username, userDetailsService::loadUserByUsername);
                 
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                     userDetails, null, userDetails.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
                 SecurityContextHolder.getContext().setAuthentication(authentication);
+                outcome = "authenticated";
+            } else if (jwt != null) {
+                outcome = "invalid";
             }
         } catch (Exception e) {
-            logger.error("Cannot set user authentication: {}", e);
+            outcome = "error";
+            // Bad tokens are routine; keep the stack trace out of the log unless debugging
+            if (logger.isDebugEnabled()) {
+                logger.debug("Cannot set user authentication", e);
+            } else {
+                logger.warn("Cannot set user authentication: " + e.getMessage());
+            }
         }
+        // Token parsing and principal lookup only; the rest of the chain is covered by http.server.requests
+        sample.stop(meterRegistry.timer("security.jwt.filter", "outcome", outcome));
 
         filterChain.doFilter(request, response);
     }
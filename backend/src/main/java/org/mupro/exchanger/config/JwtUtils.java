@@ -2,10 +2,12 @@ package org.mupro.exchanger.config;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
@@ -18,41 +20,97 @@ public class JwtUtils {
     @Value("${jwt.secret}")
     private String secret;
 
+    private static final String TOKEN_TYPE_CLAIM = "typ";
+    private static final String ACCESS_TOKEN = "access";
+    private static final String REFRESH_TOKEN = "refresh";
+    // Refresh tokens descended from the same login share a family, so reuse of one can revoke them all
+    public static final String FAMILY_CLAIM = "fam";
+
     @Value("${jwt.expiration}")
     private Long expiration;
 
+    @Value("${jwt.refresh-expiration}")
+    private Long refreshExpiration;
+
+    // The key and parser are immutable and thread-safe, so they are built once instead of per token
+    private Key signingKey;
+    private JwtParser parser;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+    }
+
     private Key getSigningKey() {
-        byte[] keyBytes = secret.getBytes();
-        return Keys.hmacShaKeyFor(keyBytes);
+        return signingKey;
     }
 
     public String generateToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
-        return createToken(claims, userDetails.getUsername());
+        claims.put(TOKEN_TYPE_CLAIM, ACCESS_TOKEN);
+        return createToken(claims, userDetails.getUsername(), expiration);
+    }
+
+    public String generateRefreshToken(UserDetails userDetails, String jti, String family) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(TOKEN_TYPE_CLAIM, REFRESH_TOKEN);
+        claims.put(Claims.ID, jti);
+        claims.put(FAMILY_CLAIM, family);
+        return createToken(claims, userDetails.getUsername(), refreshExpiration);
+    }
+
+    public long getRefreshExpiration() {
+        return refreshExpiration;
     }
 
-    private String createToken(Map<String, Object> claims, String subject) {
+    private String createToken(Map<String, Object> claims, String subject, Long lifetimeSeconds) {
         return Jwts.builder()
                 .setClaims(claims)
                 .setSubject(subject)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + expiration * 1000))
+                .setExpiration(new Date(System.currentTimeMillis() + lifetimeSeconds * 1000))
                 .signWith(getSigningKey())
                 .compact();
     }
 
-    public Boolean validateToken(String token) {
+    /**
+     * Verifies the signature and expiry and returns the claims in a single parse,
+     * or null when the token is not valid.
+     */
+    public Claims parseClaims(String token) {
         try {
-            Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token);
-            return true;
+            return parser.parseClaimsJws(token).getBody();
         } catch (JwtException | IllegalArgumentException e) {
-            return false;
+            return null;
         }
     }
 
+    /**
+     * Claims of a valid access token, or null. Refresh tokens are rejected so they cannot be used on API calls.
+     */
+    public Claims parseAccessClaims(String token) {
+        return parseClaimsOfType(token, ACCESS_TOKEN);
+    }
+
+    /**
+     * Claims of a valid refresh token, or null.
+     */
+    public Claims parseRefreshClaims(String token) {
+        return parseClaimsOfType(token, REFRESH_TOKEN);
+    }
+
+    private Claims parseClaimsOfType(String token, String type) {
+        Claims claims = parseClaims(token);
+        return claims != null && type.equals(claims.get(TOKEN_TYPE_CLAIM)) ? claims : null;
+    }
+
+    public Boolean validateToken(String token) {
+        return parseClaims(token) != null;
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -67,11 +125,7 @@ public class JwtUtils {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
     }
 
     private Boolean isTokenExpired(String token) {
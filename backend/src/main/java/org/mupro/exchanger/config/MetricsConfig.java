@@ -0,0 +1,41 @@
+package org.mupro.exchanger.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer queryCountInspectorCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new QueryCountInspector());
+    }
+
+    // Hikari reports its own pool; this adds the queue in front of it when the database gate is on
+    @Bean
+    public MeterBinder databaseGateMetrics(DataSource dataSource) {
+        return registry -> {
+            GatedDataSource gate;
+            try {
+                gate = dataSource.isWrapperFor(GatedDataSource.class) ? dataSource.unwrap(GatedDataSource.class) : null;
+            } catch (SQLException e) {
+                gate = null;
+            }
+            if (gate != null) {
+                Gauge.builder("db.gate.queue", gate, GatedDataSource::getQueueLength)
+                        .description("Callers waiting for a database connection permit")
+                        .register(registry);
+                Gauge.builder("db.gate.available", gate, GatedDataSource::getAvailablePermits)
+                        .description("Unused database connection permits")
+                        .register(registry);
+            }
+        };
+    }
+}
@@ -0,0 +1,50 @@
+package org.mupro.exchanger.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Passes only a random fraction of DEBUG and TRACE events from the configured logger prefixes, so SQL and
+ * request debug logging can stay on in production at a bounded cost. Events are dropped before any
+ * message formatting happens. Configured from logback-spring.xml.
+ */
+public class SamplingTurboFilter extends TurboFilter {
+
+    private double rate = 0.01;
+    private String[] prefixes = new String[0];
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (level.isGreaterOrEqual(Level.INFO) || !matches(logger.getName())) {
+            return FilterReply.NEUTRAL;
+        }
+        // NEUTRAL still leaves the decision to the logger's level
+        return ThreadLocalRandom.current().nextDouble() < rate ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    private boolean matches(String loggerName) {
+        for (String prefix : prefixes) {
+            if (loggerName.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void setRate(double rate) {
+        this.rate = rate;
+    }
+
+    public void setLoggers(String loggers) {
+        this.prefixes = Arrays.stream(loggers.split(","))
+                .map(String::trim)
+                .filter(prefix -> !prefix.isEmpty())
+                .toArray(String[]::new);
+    }
+}
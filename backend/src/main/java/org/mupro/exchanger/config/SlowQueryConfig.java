@@ -0,0 +1,37 @@
+package org.mupro.exchanger.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Wraps the data source in a {@link SlowQueryDataSource} when {@code db.slow-query.enabled=true}
+ * (on in the "prod" profile), logging statements slower than {@code db.slow-query.threshold}. Bind values are
+ * only logged for statements on the tables listed in {@code db.slow-query.log-parameters-for}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "db.slow-query.enabled", havingValue = "true")
+public class SlowQueryConfig {
+
+    @Bean
+    public static BeanPostProcessor slowQueryDataSourcePostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof SlowQueryDataSource) {
+                    return bean;
+                }
+                Duration threshold = environment.getProperty("db.slow-query.threshold", Duration.class, Duration.ofMillis(200));
+                String[] parameterAllowList = environment.getProperty("db.slow-query.log-parameters-for",
+                        String[].class, new String[0]);
+                return new SlowQueryDataSource(dataSource, threshold, List.of(parameterAllowList));
+            }
+        };
+    }
+}
@@ -0,0 +1,169 @@
+package org.mupro.exchanger.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Logs statements that take longer than the threshold, with the SQL, on the {@code slow-query} logger. Fast
+ * statements cost two {@link System#nanoTime()} calls and nothing is formatted for them, unlike SQL debug
+ * logging, which formats every statement.
+ * <p>
+ * Bind values can carry password hashes and personal data, so only their types and lengths are logged, unless
+ * every table the statement names is on the allow-list. Batches are logged with their row count instead of the
+ * parameters of the last row.
+ */
+public class SlowQueryDataSource extends DelegatingDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger("slow-query");
+
+    private static final Pattern TABLE_REFERENCE =
+            Pattern.compile("\\b(?:from|join|into|update)\\s+\"?([\\w.]+)\"?", Pattern.CASE_INSENSITIVE);
+
+    private final long thresholdNanos;
+    private final Set<String> parameterAllowList;
+
+    public SlowQueryDataSource(DataSource target, Duration threshold, Collection<String> parameterTables) {
+        super(target);
+        this.thresholdNanos = threshold.toNanos();
+        this.parameterAllowList = parameterTables.stream()
+                .map(table -> table.trim().toLowerCase(Locale.ROOT))
+                .filter(table -> !table.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private Connection wrap(Connection target) {
+        return (Connection) Proxy.newProxyInstance(ConnectionProxy.class.getClassLoader(),
+                new Class<?>[]{ConnectionProxy.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getTargetConnection":
+                            return target;
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        default:
+                            Object result = invoke(method, target, args);
+                            if (result instanceof CallableStatement statement) {
+                                return timed(statement, CallableStatement.class, (String) args[0]);
+                            }
+                            if (result instanceof PreparedStatement statement) {
+                                return timed(statement, PreparedStatement.class, (String) args[0]);
+                            }
+                            if (result instanceof Statement statement) {
+                                return timed(statement, Statement.class, null);
+                            }
+                            return result;
+                    }
+                });
+    }
+
+    private Object timed(Statement target, Class<? extends Statement> type, String preparedSql) {
+        Map<Integer, Object> parameters = new TreeMap<>();
+        boolean logValues = preparedSql != null && allowsParameters(preparedSql);
+        int[] batchRows = {0};
+        return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                Object value = name.equals("setNull") ? null : args[1];
+                parameters.put(index, logValues ? value : describe(value));
+            } else if (name.equals("clearParameters")) {
+                parameters.clear();
+            } else if (name.equals("addBatch")) {
+                batchRows[0]++;
+            } else if (name.equals("clearBatch")) {
+                batchRows[0] = 0;
+            }
+            if (!name.startsWith("execute")) {
+                return invoke(method, target, args);
+            }
+            long start = System.nanoTime();
+            try {
+                return invoke(method, target, args);
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                boolean batch = name.equals("executeBatch") || name.equals("executeLargeBatch");
+                if (elapsed >= thresholdNanos && log.isWarnEnabled()) {
+                    String sql = preparedSql != null ? preparedSql
+                            : args != null && args.length > 0 && args[0] instanceof String text ? text : "<batch>";
+                    if (batch) {
+                        log.warn("{} ms {} {} rows={}", elapsed / 1_000_000, name, sql, batchRows[0]);
+                    } else {
+                        log.warn("{} ms {} {} params={}", elapsed / 1_000_000, name, sql, parameters);
+                    }
+                }
+                if (batch) {
+                    batchRows[0] = 0;
+                }
+            }
+        });
+    }
+
+    // Every table the statement reads or writes must be allowed, so a join onto "User" keeps values hidden
+    private boolean allowsParameters(String sql) {
+        if (parameterAllowList.isEmpty()) {
+            return false;
+        }
+        Matcher table = TABLE_REFERENCE.matcher(sql);
+        boolean found = false;
+        while (table.find()) {
+            if (!parameterAllowList.contains(table.group(1).toLowerCase(Locale.ROOT))) {
+                return false;
+            }
+            found = true;
+        }
+        return found;
+    }
+
+    // Type and size only: enough to tell a bulk IN list or an oversized value from a normal one
+    private static String describe(Object value) {
+        if (value == null) {
+            return "null";
+        }
+        if (value instanceof CharSequence text) {
+            return "String(" + text.length() + ")";
+        }
+        if (value instanceof byte[] bytes) {
+            return "byte[" + bytes.length + "]";
+        }
+        return value.getClass().getSimpleName();
+    }
+
+    private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
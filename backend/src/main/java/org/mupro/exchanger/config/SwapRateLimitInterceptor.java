@@ -0,0 +1,41 @@
+package org.mupro.exchanger.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.mupro.exchanger.exception.TooManyRequestsException;
+import org.mupro.exchanger.model.User;
+import org.mupro.exchanger.service.SwapRateLimiter;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Applies {@link SwapRateLimiter} to every mutating call under /api/swaps; reads are not limited.
+ */
+@Component
+public class SwapRateLimitInterceptor implements HandlerInterceptor {
+
+    private final SwapRateLimiter swapRateLimiter;
+
+    public SwapRateLimitInterceptor(SwapRateLimiter swapRateLimiter) {
+        this.swapRateLimiter = swapRateLimiter;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (HttpMethod.GET.matches(request.getMethod()) || HttpMethod.OPTIONS.matches(request.getMethod())) {
+            return true;
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof User user)) {
+            return true;
+        }
+        long retryAfter = swapRateLimiter.tryAcquire(user.getId(), user.getRole());
+        if (retryAfter > 0) {
+            throw new TooManyRequestsException("Too many swap requests, slow down", retryAfter);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,101 @@
+package org.mupro.exchanger.controller;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.mupro.exchanger.dto.AdminStatsDTO;
+import org.mupro.exchanger.dto.UserImportResultDTO;
+import org.mupro.exchanger.service.AdminStatsService;
+import org.mupro.exchanger.service.DataFormat;
+import org.mupro.exchanger.service.ExportService;
+import org.mupro.exchanger.service.PrincipalCache;
+import org.mupro.exchanger.service.UserImportService;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin")
+public class AdminController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final MediaType CSV = MediaType.parseMediaType("text/csv;charset=UTF-8");
+
+    private final PrincipalCache principalCache;
+    private final ExportService exportService;
+    private final UserImportService userImportService;
+    private final AdminStatsService adminStatsService;
+
+    public AdminController(PrincipalCache principalCache, ExportService exportService,
+                           UserImportService userImportService, AdminStatsService adminStatsService) {
+        this.principalCache = principalCache;
+        this.exportService = exportService;
+        this.userImportService = userImportService;
+        this.adminStatsService = adminStatsService;
+    }
+
+    @GetMapping("/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public AdminStatsDTO getStats() {
+        return adminStatsService.getStats();
+    }
+
+    @GetMapping("/principal-cache")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Map<String, Object> getPrincipalCacheStats() {
+        CacheStats stats = principalCache.stats();
+        Map<String, Object> response = new HashMap<>();
+        response.put("size", principalCache.size());
+        response.put("hits", stats.hitCount());
+        response.put("misses", stats.missCount());
+        response.put("hitRate", stats.hitRate());
+        response.put("evictions", stats.evictionCount());
+        return response;
+    }
+
+    @GetMapping("/export/users")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportUsers(@RequestParam(defaultValue = "ndjson") String format) {
+        DataFormat exportFormat = DataFormat.parse(format);
+        return export("users", exportFormat, out -> exportService.exportUsers(exportFormat, out));
+    }
+
+    @GetMapping("/export/swaps")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportSwaps(@RequestParam(defaultValue = "ndjson") String format) {
+        DataFormat exportFormat = DataFormat.parse(format);
+        return export("swaps", exportFormat, out -> exportService.exportSwaps(exportFormat, out));
+    }
+
+    // Takes the raw request body so the upload is read as it arrives rather than buffered
+    @PostMapping("/import/users")
+    @PreAuthorize("hasRole('ADMIN')")
+    public UserImportResultDTO importUsers(@RequestParam(defaultValue = "ndjson") String format,
+                                           InputStream body) throws IOException {
+        return userImportService.importUsers(DataFormat.parse(format), body);
+    }
+
+    // The body is written on an async thread after this returns, straight to the response stream
+    private static ResponseEntity<StreamingResponseBody> export(String name, DataFormat format,
+                                                                StreamingResponseBody body) {
+        boolean csv = format == DataFormat.CSV;
+        ContentDisposition disposition = ContentDisposition.attachment()
+                .filename(name + (csv ? ".csv" : ".ndjson"))
+                .build();
+        return ResponseEntity.ok()
+                .contentType(csv ? CSV : NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+                .body(body);
+    }
+}
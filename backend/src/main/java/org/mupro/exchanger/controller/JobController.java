@@ -2,9 +2,10 @@ package org.mupro.exchanger.controller;
 
 import org.mupro.exchanger.model.Job;
 import org.mupro.exchanger.service.JobService;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.List;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/jobs")
@@ -17,8 +18,14 @@ public class JobController {
     }
 
     @GetMapping()
-    public List<Job> getAllJobs() {
-        return jobService.getAllJobs();
+    public ResponseEntity<byte[]> getAllJobs(WebRequest webRequest) {
+        if (webRequest.checkNotModified(jobService.getCatalogETag())) {
+            return null;
+        }
+        // Pre-serialised once per catalog change
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(jobService.getCatalogJson());
     }
 
     @PostMapping
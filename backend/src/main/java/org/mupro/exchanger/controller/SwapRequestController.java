@@ -1,13 +1,23 @@
 package org.mupro.exchanger.controller;
 
+import org.mupro.exchanger.dto.BulkSwapRequestDTO;
+import org.mupro.exchanger.dto.BulkSwapResultDTO;
+import org.mupro.exchanger.dto.SwapCandidateDTO;
 import org.mupro.exchanger.dto.SwapRequestDTO;
-import org.mupro.exchanger.model.SwapRequest;
+import org.mupro.exchanger.model.SwapStatus;
 import org.mupro.exchanger.model.User;
+import org.mupro.exchanger.service.SwapCycleService;
+import org.mupro.exchanger.service.SwapEventBroadcaster;
+import org.mupro.exchanger.service.SwapMatchingService;
 import org.mupro.exchanger.service.SwapRequestService;
 import org.mupro.exchanger.service.UserService;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.Map;
@@ -19,67 +29,118 @@ public class SwapRequestController {
 
     private final SwapRequestService swapRequestService;
     private final UserService userService;
+    private final SwapMatchingService swapMatchingService;
+    private final SwapCycleService swapCycleService;
+    private final SwapEventBroadcaster swapEventBroadcaster;
 
-    public SwapRequestController(SwapRequestService swapRequestService, UserService userService) {
+    public SwapRequestController(SwapRequestService swapRequestService, UserService userService,
+                                 SwapMatchingService swapMatchingService, SwapCycleService swapCycleService,
+                                 SwapEventBroadcaster swapEventBroadcaster) {
         this.swapRequestService = swapRequestService;
         this.userService = userService;
+        this.swapMatchingService = swapMatchingService;
+        this.swapCycleService = swapCycleService;
+        this.swapEventBroadcaster = swapEventBroadcaster;
     }
 
     @PostMapping("/send")
-    public SwapRequest sendRequest(@RequestBody Map<String, String> request) {
+    public SwapRequestDTO sendRequest(@RequestBody Map<String, String> request) {
         Long requesterId = Long.parseLong(request.get("requesterId"));
         Long targetId = Long.parseLong(request.get("targetId"));
         User sender = userService.getUserById(requesterId);
         User receiver = userService.getUserById(targetId);
-        return swapRequestService.sendSwapRequest(sender, receiver);
+        return SwapRequestDTO.fromEntity(swapRequestService.sendSwapRequest(sender, receiver));
     }
 
     @PutMapping("/confirm/{swapId}")
-    public SwapRequest confirmRequest(@PathVariable("swapId") Long requestId) {
-        return swapRequestService.confirmRequest(requestId);
+    public SwapRequestDTO confirmRequest(@PathVariable("swapId") Long requestId) {
+        return SwapRequestDTO.fromEntity(swapRequestService.confirmRequest(requestId));
     }
 
     @PutMapping("/approve/{swapId}")
     @PreAuthorize("hasRole('ADMIN')")
-    public SwapRequest approveRequest(@PathVariable("swapId") Long requestId) {
-        return swapRequestService.approveRequest(requestId);
+    public SwapRequestDTO approveRequest(@PathVariable("swapId") Long requestId) {
+        return SwapRequestDTO.fromEntity(swapRequestService.approveRequest(requestId));
     }
 
     @PutMapping("/reject/{swapId}")
     @PreAuthorize("hasRole('ADMIN')")
-    public SwapRequest rejectRequest(@PathVariable("swapId") Long requestId) {
-        return swapRequestService.rejectRequest(requestId);
+    public SwapRequestDTO rejectRequest(@PathVariable("swapId") Long requestId) {
+        return SwapRequestDTO.fromEntity(swapRequestService.rejectRequest(requestId));
+    }
+
+    @PostMapping("/bulk")
+    @PreAuthorize("hasRole('ADMIN')")
+    public List<BulkSwapResultDTO> applyBulk(@RequestBody BulkSwapRequestDTO request) {
+        return swapRequestService.applyBulk(request.getAction(), request.getSwapIds());
     }
 
     @GetMapping("/user/{userId}")
-    public List<SwapRequest> getUserSwapRequests(@PathVariable Long userId) {
-        User user = userService.getUserById(userId);
-        return swapRequestService.getUserSwapRequests(user);
+    public List<SwapRequestDTO> getUserSwapRequests(@PathVariable Long userId, WebRequest webRequest) {
+        if (webRequest.checkNotModified(swapRequestService.getUserSwapsETag(userId))) {
+            return null;
+        }
+        return swapRequestService.getUserSwapRequests(userId);
     }
 
     @GetMapping("/sent/{userId}")
-    public List<SwapRequest> getSentSwapRequests(@PathVariable Long userId) {
-        User sender = userService.getUserById(userId);
-        return swapRequestService.getRequestsBySender(sender);
+    public List<SwapRequestDTO> getSentSwapRequests(@PathVariable Long userId, WebRequest webRequest) {
+        if (webRequest.checkNotModified(swapRequestService.getSentETag(userId))) {
+            return null;
+        }
+        return swapRequestService.getRequestsBySender(userId);
     }
 
     @GetMapping("/received/{userId}")
-    public List<SwapRequest> getReceivedSwapRequests(@PathVariable Long userId) {
-        User receiver = userService.getUserById(userId);
-        return swapRequestService.getRequestsForReceiver(receiver);
+    public List<SwapRequestDTO> getReceivedSwapRequests(@PathVariable Long userId, WebRequest webRequest) {
+        if (webRequest.checkNotModified(swapRequestService.getReceivedETag(userId))) {
+            return null;
+        }
+        return swapRequestService.getRequestsForReceiver(userId);
+    }
+
+    @GetMapping("/candidates/{userId}")
+    public List<SwapCandidateDTO> getSwapCandidates(@PathVariable Long userId,
+                                                    @RequestParam(defaultValue = "20") int limit) {
+        return swapMatchingService.findCandidates(userId, limit);
+    }
+
+    @PostMapping("/cycles")
+    @PreAuthorize("hasRole('ADMIN')")
+    public List<SwapRequestDTO> proposeSwapCycles(@RequestParam(required = false) Integer maxLength) {
+        return swapCycleService.proposeCycles(maxLength).stream()
+                .map(SwapRequestDTO::fromEntity)
+                .collect(Collectors.toList());
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOwnSwapEvents(@AuthenticationPrincipal User user) {
+        return swapEventBroadcaster.subscribeUser(user.getId());
+    }
+
+    @GetMapping(value = "/stream/admin", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public SseEmitter streamAdminSwapEvents() {
+        return swapEventBroadcaster.subscribeAdmin();
     }
 
     @GetMapping("/pending")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<SwapRequest>> getPendingSwaps() {
-        List<SwapRequest> pending = swapRequestService.getPendingSwaps();
+    public ResponseEntity<List<SwapRequestDTO>> getPendingSwaps(WebRequest webRequest) {
+        if (webRequest.checkNotModified(swapRequestService.getStatusETag(SwapStatus.PENDING))) {
+            return null;
+        }
+        List<SwapRequestDTO> pending = swapRequestService.getPendingSwaps();
         return ResponseEntity.ok(pending);
     }
 
     @GetMapping("/confirmed")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<SwapRequest>> getConfirmedSwaps() {
-        List<SwapRequest> confirmed = swapRequestService.getConfirmedSwaps();
+    public ResponseEntity<List<SwapRequestDTO>> getConfirmedSwaps(WebRequest webRequest) {
+        if (webRequest.checkNotModified(swapRequestService.getStatusETag(SwapStatus.CONFIRMED_BY_USER2))) {
+            return null;
+        }
+        List<SwapRequestDTO> confirmed = swapRequestService.getConfirmedSwaps();
         return ResponseEntity.ok(confirmed);
     }
 }
@@ -1,113 +1,139 @@
 package org.mupro.exchanger.controller;
 
+import io.jsonwebtoken.Claims;
 import org.mupro.exchanger.config.JwtUtils;
+import org.mupro.exchanger.dto.LoginResponseDTO;
+import org.mupro.exchanger.dto.UserDetailDTO;
+import org.mupro.exchanger.dto.UserPageDTO;
+import org.mupro.exchanger.dto.UserSearchHitDTO;
 import org.mupro.exchanger.model.User;
+import org.mupro.exchanger.service.LoginService;
+import org.mupro.exchanger.service.RefreshTokenService;
+import org.mupro.exchanger.service.UserSearchService;
 import org.mupro.exchanger.service.UserService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequestMapping("/api/users")
 public class UserController {
 
     private final UserService userService;
-    private final AuthenticationManager authenticationManager;
+    private final LoginService loginService;
     private final JwtUtils jwtUtils;
+    private final UserSearchService userSearchService;
+    private final RefreshTokenService refreshTokenService;
 
-    public UserController(UserService userService, AuthenticationManager authenticationManager, JwtUtils jwtUtils) {
+    public UserController(UserService userService, LoginService loginService, JwtUtils jwtUtils,
+                          UserSearchService userSearchService, RefreshTokenService refreshTokenService) {
         this.userService = userService;
-        this.authenticationManager = authenticationManager;
+        this.loginService = loginService;
         this.jwtUtils = jwtUtils;
+        this.userSearchService = userSearchService;
+        this.refreshTokenService = refreshTokenService;
     }
 
     @PostMapping("/register")
-    public User registerUser(@RequestBody User user) {
-        return userService.saveUser(user);
+    public UserDetailDTO registerUser(@RequestBody User user) {
+        return UserDetailDTO.fromEntity(userService.saveUser(user));
     }
     
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody Map<String, String> loginRequest) {
-        try {
-            String email = loginRequest.get("email");
-            String password = loginRequest.get("password");
-            
-            Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(email, password)
-            );
-            
-            SecurityContextHolder.getContext().setAuthentication(authentication);
-            
-            Optional<User> userOptional = userService.getUserByEmail(email);
-            if (userOptional.isPresent()) {
-                User user = userOptional.get();
-                String token = jwtUtils.generateToken(user);
-                
-                // Create response with user data and token
-                Map<String, Object> response = new HashMap<>();
-                response.put("token", token);
-                response.put("id", user.getId());
-                response.put("email", user.getEmail());
-                response.put("name", user.getName());
-                response.put("role", user.getRole());
-                response.put("homeLocation", user.getHomeLocation());
-                response.put("qualification", user.getQualification());
-                response.put("job", user.getJob());
-                return ResponseEntity.ok(response);
-            } else {
-                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found");
-            }
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid email or password");
+    public CompletableFuture<ResponseEntity<?>> login(@RequestBody Map<String, String> loginRequest) {
+        // Password check runs on the bounded BCrypt pool; the request thread is free while it waits
+        return loginService.authenticate(loginRequest.get("email"), loginRequest.get("password"))
+                .<ResponseEntity<?>>thenApply(user -> ResponseEntity.ok(LoginResponseDTO.of(
+                        user, jwtUtils.generateToken(user), refreshTokenService.issue(user))))
+                .exceptionally(e -> {
+                    // Only a rejected password is a 401; anything else propagates and is answered with a 5xx
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    if (cause instanceof BadCredentialsException) {
+                        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid email or password");
+                    }
+                    throw e instanceof CompletionException completion ? completion : new CompletionException(e);
+                });
+    }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@RequestBody Map<String, String> refreshRequest) {
+        Claims claims = jwtUtils.parseRefreshClaims(refreshRequest.get("refreshToken"));
+        if (claims == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid or expired refresh token");
+        }
+
+        Optional<User> userOptional = userService.getUserByEmail(claims.getSubject());
+        if (userOptional.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("User not found");
+        }
+
+        // Single use: the presented token is consumed and replaced, and a replayed one revokes its family
+        User user = userOptional.get();
+        String refreshToken = refreshTokenService.rotate(claims, user);
+        if (refreshToken == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid or expired refresh token");
         }
+        Map<String, Object> response = new HashMap<>();
+        response.put("token", jwtUtils.generateToken(user));
+        response.put("refreshToken", refreshToken);
+        return ResponseEntity.ok(response);
     }
 
     @GetMapping("/all")
     @PreAuthorize("hasRole('ADMIN')")
-    public List<User> getAllUsers(){
-        return userService.getAllUsers();
+    public UserPageDTO getAllUsers(@RequestParam(required = false) String role,
+                                   @RequestParam(required = false) String homeLocation,
+                                   @RequestParam(required = false) String jobLocation,
+                                   @RequestParam(required = false) String qualification,
+                                   @RequestParam(required = false) String cursor,
+                                   @RequestParam(defaultValue = "50") int size) {
+        return userService.getUserDirectory(role, homeLocation, jobLocation, qualification, cursor, size);
+    }
+
+    @GetMapping("/search")
+    public List<UserSearchHitDTO> searchUsers(@RequestParam("q") String query,
+                                              @RequestParam(defaultValue = "20") int limit) {
+        return userSearchService.search(query, limit);
     }
 
     @GetMapping("/{id}")
-    public User getUser(@PathVariable Long id) {
-        return userService.getUserById(id);
+    public UserDetailDTO getUser(@PathVariable Long id, WebRequest webRequest) {
+        if (webRequest.checkNotModified(userService.getUserETag(id))) {
+            return null;
+        }
+        return userService.getUserDetail(id);
     }
 
     @GetMapping("/me")
-    public ResponseEntity<?> getProfile(Authentication authentication) {
+    public ResponseEntity<?> getProfile(Authentication authentication, WebRequest webRequest) {
         if (authentication == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Not authenticated");
         }
         
         String email = authentication.getName();
-        Optional<User> user = userService.getUserByEmail(email);
+        if (webRequest.checkNotModified(userService.getUserETagByEmail(email))) {
+            return null;
+        }
+        Optional<UserDetailDTO> user = userService.getUserDetailByEmail(email);
         if (user.isPresent()) {
-            User userData = user.get();
-            Map<String, Object> response = new HashMap<>();
-            response.put("id", userData.getId());
-            response.put("email", userData.getEmail());
-            response.put("name", userData.getName());
-            response.put("role", userData.getRole());
-            response.put("homeLocation", userData.getHomeLocation());
-            response.put("qualification", userData.getQualification());
-            response.put("job", userData.getJob());
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(user.get());
         }
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found");
     }
 
     @PutMapping("/{id}")
-    public User updateUser(@PathVariable Long id, @RequestBody User userData) {
+    public UserDetailDTO updateUser(@PathVariable Long id, @RequestBody User userData) {
         User existingUser = userService.getUserById(id);
         
         // Update only the allowed fields
@@ -116,7 +142,7 @@ public class UserController {
         if (userData.getQualification() != null) existingUser.setQualification(userData.getQualification());
         if (userData.getJob() != null) existingUser.setJob(userData.getJob());
         
-        return userService.saveUser(existingUser);
+        return UserDetailDTO.fromEntity(userService.saveUser(existingUser));
     }
 
     @DeleteMapping("/{id}")
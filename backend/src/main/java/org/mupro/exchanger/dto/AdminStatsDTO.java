@@ -0,0 +1,64 @@
+package org.mupro.exchanger.dto;
+
+import java.util.Map;
+
+public class AdminStatsDTO {
+    private long totalUsers;
+    private Map<String, Long> usersByRole;
+    private Map<String, Long> usersByJobLocation;
+    private Map<String, Long> swapsByStatus;
+    // ISO date to the number of swap requests created that day, oldest first
+    private Map<String, Long> swapsCreatedByDay;
+    private String reconciledAt;
+
+    public AdminStatsDTO() {
+    }
+
+    public long getTotalUsers() {
+        return totalUsers;
+    }
+
+    public void setTotalUsers(long totalUsers) {
+        this.totalUsers = totalUsers;
+    }
+
+    public Map<String, Long> getUsersByRole() {
+        return usersByRole;
+    }
+
+    public void setUsersByRole(Map<String, Long> usersByRole) {
+        this.usersByRole = usersByRole;
+    }
+
+    public Map<String, Long> getUsersByJobLocation() {
+        return usersByJobLocation;
+    }
+
+    public void setUsersByJobLocation(Map<String, Long> usersByJobLocation) {
+        this.usersByJobLocation = usersByJobLocation;
+    }
+
+    public Map<String, Long> getSwapsByStatus() {
+        return swapsByStatus;
+    }
+
+    public void setSwapsByStatus(Map<String, Long> swapsByStatus) {
+        this.swapsByStatus = swapsByStatus;
+    }
+
+    public Map<String, Long> getSwapsCreatedByDay() {
+        return swapsCreatedByDay;
+    }
+
+    public void setSwapsCreatedByDay(Map<String, Long> swapsCreatedByDay) {
+        this.swapsCreatedByDay = swapsCreatedByDay;
+    }
+
+    public String getReconciledAt() {
+        return reconciledAt;
+    }
+
+    public void setReconciledAt(String reconciledAt) {
+        this.reconciledAt = reconciledAt;
+    }
+}
@@ -0,0 +1,32 @@
+package org.mupro.exchanger.dto;
+
+import java.util.List;
+
+public class BulkSwapRequestDTO {
+    private String action; // "APPROVE" or "REJECT"
+    private List<Long> swapIds;
+
+    public BulkSwapRequestDTO() {
+    }
+
+    public BulkSwapRequestDTO(String action, List<Long> swapIds) {
+        this.action = action;
+        this.swapIds = swapIds;
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    public void setAction(String action) {
+        this.action = action;
+    }
+
+    public List<Long> getSwapIds() {
+        return swapIds;
+    }
+
+    public void setSwapIds(List<Long> swapIds) {
+        this.swapIds = swapIds;
+    }
+}
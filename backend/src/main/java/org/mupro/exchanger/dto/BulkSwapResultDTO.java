@@ -0,0 +1,51 @@
+package org.mupro.exchanger.dto;
+
+public class BulkSwapResultDTO {
+    public static final String APPROVED = "APPROVED";
+    public static final String REJECTED = "REJECTED";
+    public static final String NOT_FOUND = "NOT_FOUND";
+    public static final String INVALID_STATUS = "INVALID_STATUS";
+    public static final String CONFLICT = "CONFLICT";
+    public static final String SKIPPED = "SKIPPED";
+
+    private String swapId;
+    private String outcome;
+    private String message;
+
+    public BulkSwapResultDTO() {
+    }
+
+    public BulkSwapResultDTO(String swapId, String outcome, String message) {
+        this.swapId = swapId;
+        this.outcome = outcome;
+        this.message = message;
+    }
+
+    public static BulkSwapResultDTO of(Long swapId, String outcome, String message) {
+        return new BulkSwapResultDTO(String.valueOf(swapId), outcome, message);
+    }
+
+    public String getSwapId() {
+        return swapId;
+    }
+
+    public void setSwapId(String swapId) {
+        this.swapId = swapId;
+    }
+
+    public String getOutcome() {
+        return outcome;
+    }
+
+    public void setOutcome(String outcome) {
+        this.outcome = outcome;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
@@ -0,0 +1,36 @@
+package org.mupro.exchanger.dto;
+
+import org.mupro.exchanger.model.User;
+
+// Flat, because the client stores the whole login response as its current user
+public class LoginResponseDTO extends UserDetailDTO {
+    private String token;
+    private String refreshToken;
+
+    public LoginResponseDTO() {
+    }
+
+    public static LoginResponseDTO of(User user, String token, String refreshToken) {
+        LoginResponseDTO dto = new LoginResponseDTO();
+        copy(user, dto);
+        dto.setToken(token);
+        dto.setRefreshToken(refreshToken);
+        return dto;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+}
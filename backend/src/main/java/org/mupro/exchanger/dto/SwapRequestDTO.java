@@ -1,6 +1,7 @@
 package org.mupro.exchanger.dto;
 
 import org.mupro.exchanger.model.SwapRequest;
+import org.mupro.exchanger.model.SwapStatus;
 
 import java.time.LocalDateTime;
 
@@ -14,10 +15,24 @@ public class SwapRequestDTO {
     private String createdAt;
     private String confirmedAt;
     private String approvedAt;
+    private String cycleId;
 
     public SwapRequestDTO() {
     }
 
+    // Used by the JPQL constructor projections in SwapRequestRepository
+    public SwapRequestDTO(Long id, Long requesterId, String requesterName, Long targetId, String targetName,
+                          SwapStatus status, LocalDateTime createdAt, String cycleId) {
+        this.id = id.toString();
+        this.requesterId = requesterId.toString();
+        this.requesterName = requesterName;
+        this.targetId = targetId.toString();
+        this.targetName = targetName;
+        this.status = status.toString();
+        this.createdAt = createdAt.toString();
+        this.cycleId = cycleId;
+    }
+
     public static SwapRequestDTO fromEntity(SwapRequest entity) {
         SwapRequestDTO dto = new SwapRequestDTO();
         dto.setId(entity.getId().toString());
@@ -27,6 +42,7 @@ public class SwapRequestDTO {
         dto.setTargetName(entity.getReceiver().getName());
         dto.setStatus(entity.getStatus().toString());
         dto.setCreatedAt(entity.getCreatedAt().toString());
+        dto.setCycleId(entity.getCycleId());
         return dto;
     }
 
@@ -101,4 +117,12 @@ public class SwapRequestDTO {
     public void setApprovedAt(String approvedAt) {
         this.approvedAt = approvedAt;
     }
-} 
\ No newline at end of file
+
+    public String getCycleId() {
+        return cycleId;
+    }
+
+    public void setCycleId(String cycleId) {
+        this.cycleId = cycleId;
+    }
+}
@@ -0,0 +1,62 @@
+package org.mupro.exchanger.dto;
+
+import org.mupro.exchanger.model.Job;
+import org.mupro.exchanger.model.User;
+
+/**
+ * A single user's profile: the directory fields plus the job's id and description, so the client can
+ * show and edit the assignment without fetching the job separately.
+ */
+public class UserDetailDTO extends UserSummaryDTO {
+    private String jobId;
+    private String jobDescription;
+
+    public UserDetailDTO() {
+    }
+
+    // Used by the JPQL constructor projections in UserRepository
+    public UserDetailDTO(Long id, String name, String email, String role, String homeLocation, String qualification,
+                         Long jobId, String jobTitle, String jobLocation, String jobDescription) {
+        super(id, name, email, role, homeLocation, qualification, jobTitle, jobLocation);
+        this.jobId = jobId != null ? jobId.toString() : null;
+        this.jobDescription = jobDescription;
+    }
+
+    public static UserDetailDTO fromEntity(User entity) {
+        UserDetailDTO dto = new UserDetailDTO();
+        copy(entity, dto);
+        return dto;
+    }
+
+    static void copy(User entity, UserDetailDTO dto) {
+        Job job = entity.getJob();
+        dto.setId(entity.getId().toString());
+        dto.setName(entity.getName());
+        dto.setEmail(entity.getEmail());
+        dto.setRole(entity.getRole());
+        dto.setHomeLocation(entity.getHomeLocation());
+        dto.setQualification(entity.getQualification());
+        if (job != null) {
+            dto.setJobId(job.getId().toString());
+            dto.setJobTitle(job.getTitle());
+            dto.setJobLocation(job.getLocation());
+            dto.setJobDescription(job.getDescription());
+        }
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(String jobId) {
+        this.jobId = jobId;
+    }
+
+    public String getJobDescription() {
+        return jobDescription;
+    }
+
+    public void setJobDescription(String jobDescription) {
+        this.jobDescription = jobDescription;
+    }
+}
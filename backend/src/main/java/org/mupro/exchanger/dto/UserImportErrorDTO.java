@@ -0,0 +1,40 @@
+package org.mupro.exchanger.dto;
+
+public class UserImportErrorDTO {
+    private long line;
+    private String email;
+    private String message;
+
+    public UserImportErrorDTO() {
+    }
+
+    public UserImportErrorDTO(long line, String email, String message) {
+        this.line = line;
+        this.email = email;
+        this.message = message;
+    }
+
+    public long getLine() {
+        return line;
+    }
+
+    public void setLine(long line) {
+        this.line = line;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
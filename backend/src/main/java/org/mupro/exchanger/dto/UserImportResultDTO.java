@@ -0,0 +1,56 @@
+package org.mupro.exchanger.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class UserImportResultDTO {
+    private long received;
+    private long imported;
+    private long failed;
+    // Only the first errors are listed; failed counts all of them
+    private List<UserImportErrorDTO> errors = new ArrayList<>();
+    private boolean errorsTruncated;
+
+    public UserImportResultDTO() {
+    }
+
+    public long getReceived() {
+        return received;
+    }
+
+    public void setReceived(long received) {
+        this.received = received;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    public List<UserImportErrorDTO> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<UserImportErrorDTO> errors) {
+        this.errors = errors;
+    }
+
+    public boolean isErrorsTruncated() {
+        return errorsTruncated;
+    }
+
+    public void setErrorsTruncated(boolean errorsTruncated) {
+        this.errorsTruncated = errorsTruncated;
+    }
+}
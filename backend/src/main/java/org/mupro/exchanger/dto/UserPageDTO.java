@@ -0,0 +1,32 @@
+package org.mupro.exchanger.dto;
+
+import java.util.List;
+
+public class UserPageDTO {
+    private List<UserSummaryDTO> users;
+    private String nextCursor;
+
+    public UserPageDTO() {
+    }
+
+    public UserPageDTO(List<UserSummaryDTO> users, String nextCursor) {
+        this.users = users;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<UserSummaryDTO> getUsers() {
+        return users;
+    }
+
+    public void setUsers(List<UserSummaryDTO> users) {
+        this.users = users;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
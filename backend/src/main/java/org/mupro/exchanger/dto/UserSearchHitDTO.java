@@ -0,0 +1,81 @@
+package org.mupro.exchanger.dto;
+
+public class UserSearchHitDTO {
+    private String userId;
+    private String name;
+    private String qualification;
+    private String homeLocation;
+    private String jobTitle;
+    private String jobLocation;
+    private int score;
+
+    public UserSearchHitDTO() {
+    }
+
+    public UserSearchHitDTO(String userId, String name, String qualification, String homeLocation,
+                            String jobTitle, String jobLocation, int score) {
+        this.userId = userId;
+        this.name = name;
+        this.qualification = qualification;
+        this.homeLocation = homeLocation;
+        this.jobTitle = jobTitle;
+        this.jobLocation = jobLocation;
+        this.score = score;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getQualification() {
+        return qualification;
+    }
+
+    public void setQualification(String qualification) {
+        this.qualification = qualification;
+    }
+
+    public String getHomeLocation() {
+        return homeLocation;
+    }
+
+    public void setHomeLocation(String homeLocation) {
+        this.homeLocation = homeLocation;
+    }
+
+    public String getJobTitle() {
+        return jobTitle;
+    }
+
+    public void setJobTitle(String jobTitle) {
+        this.jobTitle = jobTitle;
+    }
+
+    public String getJobLocation() {
+        return jobLocation;
+    }
+
+    public void setJobLocation(String jobLocation) {
+        this.jobLocation = jobLocation;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public void setScore(int score) {
+        this.score = score;
+    }
+}
@@ -0,0 +1,92 @@
+package org.mupro.exchanger.dto;
+
+public class UserSummaryDTO {
+    private String id;
+    private String name;
+    private String email;
+    private String role;
+    private String homeLocation;
+    private String qualification;
+    private String jobTitle;
+    private String jobLocation;
+
+    public UserSummaryDTO() {
+    }
+
+    // Used by the directory query in UserDirectoryRepositoryImpl
+    public UserSummaryDTO(Long id, String name, String email, String role, String homeLocation,
+                          String qualification, String jobTitle, String jobLocation) {
+        this.id = id.toString();
+        this.name = name;
+        this.email = email;
+        this.role = role;
+        this.homeLocation = homeLocation;
+        this.qualification = qualification;
+        this.jobTitle = jobTitle;
+        this.jobLocation = jobLocation;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public void setRole(String role) {
+        this.role = role;
+    }
+
+    public String getHomeLocation() {
+        return homeLocation;
+    }
+
+    public void setHomeLocation(String homeLocation) {
+        this.homeLocation = homeLocation;
+    }
+
+    public String getQualification() {
+        return qualification;
+    }
+
+    public void setQualification(String qualification) {
+        this.qualification = qualification;
+    }
+
+    public String getJobTitle() {
+        return jobTitle;
+    }
+
+    public void setJobTitle(String jobTitle) {
+        this.jobTitle = jobTitle;
+    }
+
+    public String getJobLocation() {
+        return jobLocation;
+    }
+
+    public void setJobLocation(String jobLocation) {
+        this.jobLocation = jobLocation;
+    }
+}
@@ -0,0 +1,26 @@
+package org.mupro.exchanger.event;
+
+import org.mupro.exchanger.model.SwapRequest;
+import org.mupro.exchanger.model.SwapStatus;
+
+/**
+ * Published by {@link org.mupro.exchanger.service.SwapRequestService} whenever a swap request is created or
+ * changes status. {@code previousStatus} is null for a newly sent request.
+ */
+public class SwapStatusChangedEvent {
+    private final SwapRequest swapRequest;
+    private final SwapStatus previousStatus;
+
+    public SwapStatusChangedEvent(SwapRequest swapRequest, SwapStatus previousStatus) {
+        this.swapRequest = swapRequest;
+        this.previousStatus = previousStatus;
+    }
+
+    public SwapRequest getSwapRequest() {
+        return swapRequest;
+    }
+
+    public SwapStatus getPreviousStatus() {
+        return previousStatus;
+    }
+}
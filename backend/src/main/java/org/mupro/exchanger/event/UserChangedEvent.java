@@ -0,0 +1,25 @@
+package org.mupro.exchanger.event;
+
+import org.mupro.exchanger.model.User;
+
+/**
+ * Published by {@link org.mupro.exchanger.service.UserService} after a user has been saved or deleted,
+ * so in-memory views over users can be updated incrementally.
+ */
+public class UserChangedEvent {
+    private final User user;
+    private final boolean deleted;
+
+    public UserChangedEvent(User user, boolean deleted) {
+        this.user = user;
+        this.deleted = deleted;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public boolean isDeleted() {
+        return deleted;
+    }
+}
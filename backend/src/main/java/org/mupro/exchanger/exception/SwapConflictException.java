@@ -0,0 +1,12 @@
+package org.mupro.exchanger.exception;
+
+/**
+ * Thrown when a swap could not be applied because concurrent changes to the same users or request
+ * kept winning the optimistic version check.
+ */
+public class SwapConflictException extends RuntimeException {
+
+    public SwapConflictException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -4,16 +4,23 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Version;
 
 @Entity
 public class Job {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "job_id")
+    @SequenceGenerator(name = "job_id", sequenceName = "job_seq", allocationSize = 50)
     private Long id;
     private String description;
     private String title;
     private String location;
 
+    // Bumped on every change; feeds the ETags of /api/jobs and of users embedding this job
+    @Version
+    private Long version;
+
     public Job(){}
 
     public Job(Long id, String description, String title, String location) {
@@ -59,4 +66,12 @@ public class Job {
     public void setLocation(String location) {
         this.location = location;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,63 @@
+package org.mupro.exchanger.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Server-side record of an issued refresh token, keyed by its {@code jti} claim.
+ */
+@Entity
+@Table(name = "refresh_token")
+public class RefreshToken {
+    @Id
+    @Column(length = 36)
+    private String jti;
+
+    @Column(length = 36, nullable = false)
+    private String family;
+
+    @Column(nullable = false)
+    private String email;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    private LocalDateTime usedAt;
+
+    @Column(nullable = false)
+    private boolean revoked;
+
+    public RefreshToken(){}
+
+    public RefreshToken(String jti, String family, String email, LocalDateTime expiresAt) {
+        this.jti = jti;
+        this.family = family;
+        this.email = email;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getJti() {
+        return jti;
+    }
+
+    public String getFamily() {
+        return family;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public LocalDateTime getUsedAt() {
+        return usedAt;
+    }
+
+    public boolean isRevoked() {
+        return revoked;
+    }
+}
@@ -7,7 +7,9 @@ import java.time.LocalDateTime;
 @Entity
 public class SwapRequest {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence instead of IDENTITY so inserts can be JDBC-batched; one round trip reserves 50 ids
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "swaprequest_id")
+    @SequenceGenerator(name = "swaprequest_id", sequenceName = "swaprequest_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -21,6 +23,15 @@ public class SwapRequest {
 
     private LocalDateTime createdAt = LocalDateTime.now();
 
+    // Set when the request is one leg of a multi-party rotation: the sender takes over the receiver's job
+    private String cycleId;
+
+    private Integer cycleLength;
+
+    // Optimistic concurrency: concurrent approvals touching the same row fail at commit instead of overwriting
+    @Version
+    private Long version;
+
     public SwapRequest(){}
 
     public SwapRequest(Long id, User sender, User receiver, SwapStatus status) {
@@ -78,5 +89,28 @@ public class SwapRequest {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
-}
 
+    public String getCycleId() {
+        return cycleId;
+    }
+
+    public void setCycleId(String cycleId) {
+        this.cycleId = cycleId;
+    }
+
+    public Integer getCycleLength() {
+        return cycleLength;
+    }
+
+    public void setCycleLength(Integer cycleLength) {
+        this.cycleLength = cycleLength;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
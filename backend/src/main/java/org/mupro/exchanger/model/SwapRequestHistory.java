@@ -0,0 +1,75 @@
+package org.mupro.exchanger.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * An archived, finished {@link SwapRequest}. Rows are only ever inserted, by the archival job, and keep the
+ * participant ids rather than associations because the users may since have been deleted.
+ */
+@Entity
+@Immutable
+@Table(name = "swaprequest_history")
+public class SwapRequestHistory {
+    @Id
+    private Long id;
+
+    @Column(name = "sender_id")
+    private Long senderId;
+
+    @Column(name = "receiver_id")
+    private Long receiverId;
+
+    @Enumerated(EnumType.STRING)
+    private SwapStatus status;
+
+    private LocalDateTime createdAt;
+
+    private String cycleId;
+
+    private Integer cycleLength;
+
+    private Long version;
+
+    private LocalDateTime archivedAt;
+
+    public SwapRequestHistory(){}
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getSenderId() {
+        return senderId;
+    }
+
+    public Long getReceiverId() {
+        return receiverId;
+    }
+
+    public SwapStatus getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public String getCycleId() {
+        return cycleId;
+    }
+
+    public Integer getCycleLength() {
+        return cycleLength;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+}
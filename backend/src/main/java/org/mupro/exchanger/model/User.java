@@ -1,5 +1,6 @@
 package org.mupro.exchanger.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -12,12 +13,15 @@ import java.util.Collections;
 @Table(name = "\"User\"")
 public class User implements UserDetails {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_id")
+    @SequenceGenerator(name = "user_id", sequenceName = "user_seq", allocationSize = 50)
     private Long id;
 
     private String name;
     @Column(unique = true)
     private String email;
+    // Accepted on registration, never written back out
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private String password;
     private String role; // "NORMALUSER" or "ADMIN"
     private String homeLocation;
@@ -27,6 +31,10 @@ public class User implements UserDetails {
     @JoinColumn(name = "job_id")
     private Job job;
 
+    // Optimistic concurrency: concurrent approvals touching the same row fail at commit instead of overwriting
+    @Version
+    private Long version;
+
     public User(){}
     public User(Long id, String name, String email, String password, String role, String homeLocation, String qualification, Job job) {
         this.id = id;
@@ -148,9 +156,16 @@ public class User implements UserDetails {
     public void setJob(Job job) {
         this.job = job;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
 
 //Done with every endpoint needed so now am left with configuring
 //security and after that all works create the frontend
 //and the final step is integration and testing
-
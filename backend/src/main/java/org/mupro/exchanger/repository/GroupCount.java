@@ -0,0 +1,23 @@
+package org.mupro.exchanger.repository;
+
+/**
+ * One row of a {@code group by} count. The key is whatever was grouped on (a string, an enum or a date),
+ * kept as its string form; null when the grouped column was null.
+ */
+public class GroupCount {
+    private final String key;
+    private final long count;
+
+    public GroupCount(Object key, Long count) {
+        this.key = key != null ? key.toString() : null;
+        this.count = count;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public long getCount() {
+        return count;
+    }
+}
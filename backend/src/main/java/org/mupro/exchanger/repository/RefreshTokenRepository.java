@@ -0,0 +1,26 @@
+package org.mupro.exchanger.repository;
+
+import org.mupro.exchanger.model.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, String> {
+
+    // Conditional update, so of two concurrent exchanges of the same token exactly one succeeds
+    @Modifying
+    @Query("update RefreshToken t set t.usedAt = :now " +
+            "where t.jti = :jti and t.usedAt is null and t.revoked = false and t.expiresAt > :now")
+    int markUsed(@Param("jti") String jti, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("update RefreshToken t set t.revoked = true where t.family = :family")
+    int revokeFamily(@Param("family") String family);
+
+    @Modifying
+    @Query("delete from RefreshToken t where t.expiresAt < :cutoff")
+    int deleteExpiredBefore(@Param("cutoff") LocalDateTime cutoff);
+}
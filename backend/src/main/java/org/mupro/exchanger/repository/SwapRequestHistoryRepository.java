@@ -0,0 +1,62 @@
+package org.mupro.exchanger.repository;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.mupro.exchanger.dto.SwapRequestDTO;
+import org.mupro.exchanger.model.SwapRequestHistory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface SwapRequestHistoryRepository extends JpaRepository<SwapRequestHistory, Long> {
+    // Same DTO as the hot lists; participants are outer-joined because they may have been deleted since
+    String DTO_SELECT = "select new org.mupro.exchanger.dto.SwapRequestDTO(" +
+            "h.id, h.senderId, snd.name, h.receiverId, rcv.name, h.status, h.createdAt, h.cycleId) " +
+            "from SwapRequestHistory h left join User snd on snd.id = h.senderId " +
+            "left join User rcv on rcv.id = h.receiverId ";
+
+    // Same shape as the hot stamps, so a row keeps its stamp when it is archived; a deleted participant counts as 0
+    String STAMP_SELECT = "select new org.mupro.exchanger.repository.VersionStamp(" +
+            "h.id, h.version, snd.version, rcv.version) " +
+            "from SwapRequestHistory h left join User snd on snd.id = h.senderId " +
+            "left join User rcv on rcv.id = h.receiverId ";
+
+    @Query(STAMP_SELECT + "where h.senderId = :userId or h.receiverId = :userId order by h.id")
+    List<VersionStamp> findStampsByParticipant(@Param("userId") Long userId);
+
+    @Query(STAMP_SELECT + "where h.senderId = :senderId order by h.id")
+    List<VersionStamp> findStampsBySender(@Param("senderId") Long senderId);
+
+    @Query(DTO_SELECT + "where h.senderId = :userId or h.receiverId = :userId order by h.id")
+    List<SwapRequestDTO> findDtosByParticipant(@Param("userId") Long userId);
+
+    @Query(DTO_SELECT + "where h.senderId = :senderId order by h.id")
+    List<SwapRequestDTO> findDtosBySender(@Param("senderId") Long senderId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(DTO_SELECT + "order by h.id")
+    Stream<SwapRequestDTO> streamAllDtos();
+
+    @Query("select new org.mupro.exchanger.repository.GroupCount(h.status, count(h)) " +
+            "from SwapRequestHistory h group by h.status")
+    List<GroupCount> countGroupedByStatus();
+
+    @Query("select new org.mupro.exchanger.repository.GroupCount(cast(h.createdAt as LocalDate), count(h)) " +
+            "from SwapRequestHistory h where h.createdAt >= :since group by cast(h.createdAt as LocalDate)")
+    List<GroupCount> countCreatedPerDaySince(@Param("since") LocalDateTime since);
+
+    // Copies the given hot rows; the caller deletes them in the same transaction
+    @Modifying
+    @Query("insert into SwapRequestHistory " +
+            "(id, senderId, receiverId, status, createdAt, cycleId, cycleLength, version, archivedAt) " +
+            "select s.id, s.sender.id, s.receiver.id, s.status, s.createdAt, s.cycleId, s.cycleLength, s.version, " +
+            ":archivedAt from SwapRequest s where s.id in :ids")
+    int copyFromSwapRequests(@Param("ids") Collection<Long> ids, @Param("archivedAt") LocalDateTime archivedAt);
+}
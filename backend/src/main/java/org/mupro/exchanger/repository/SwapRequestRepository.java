@@ -1,15 +1,103 @@
 package org.mupro.exchanger.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.mupro.exchanger.dto.SwapRequestDTO;
 import org.mupro.exchanger.model.SwapRequest;
 import org.mupro.exchanger.model.SwapStatus;
-import org.mupro.exchanger.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface SwapRequestRepository extends JpaRepository<SwapRequest, Long> {
-    List<SwapRequest> findByReceiverAndStatus(User receiver, SwapStatus status);
-    List<SwapRequest> findByStatus(SwapStatus status);
-    List<SwapRequest> findBySender(User sender);
-    List<SwapRequest> findByReceiver(User receiver);
+    // Single-statement projection for the list endpoints: only the columns the DTO needs, no entity hydration
+    String DTO_SELECT = "select new org.mupro.exchanger.dto.SwapRequestDTO(" +
+            "s.id, snd.id, snd.name, rcv.id, rcv.name, s.status, s.createdAt, s.cycleId) " +
+            "from SwapRequest s join s.sender snd join s.receiver rcv ";
+
+    // Same filters and order as the DTO lists; participant versions are included because the DTOs carry their names
+    String STAMP_SELECT = "select new org.mupro.exchanger.repository.VersionStamp(" +
+            "s.id, s.version, snd.version, rcv.version) " +
+            "from SwapRequest s join s.sender snd join s.receiver rcv ";
+
+    @Query(STAMP_SELECT + "where snd.id = :userId or rcv.id = :userId order by s.id")
+    List<VersionStamp> findStampsByParticipant(@Param("userId") Long userId);
+
+    @Query(STAMP_SELECT + "where snd.id = :senderId order by s.id")
+    List<VersionStamp> findStampsBySender(@Param("senderId") Long senderId);
+
+    @Query(STAMP_SELECT + "where rcv.id = :receiverId and s.status = :status order by s.id")
+    List<VersionStamp> findStampsByReceiverAndStatus(@Param("receiverId") Long receiverId,
+                                                     @Param("status") SwapStatus status);
+
+    @Query(STAMP_SELECT + "where s.status = :status order by s.id")
+    List<VersionStamp> findStampsByStatus(@Param("status") SwapStatus status);
+
+    @Query(DTO_SELECT + "where snd.id = :userId or rcv.id = :userId order by s.id")
+    List<SwapRequestDTO> findDtosByParticipant(@Param("userId") Long userId);
+
+    @Query(DTO_SELECT + "where snd.id = :senderId order by s.id")
+    List<SwapRequestDTO> findDtosBySender(@Param("senderId") Long senderId);
+
+    @Query(DTO_SELECT + "where rcv.id = :receiverId and s.status = :status order by s.id")
+    List<SwapRequestDTO> findDtosByReceiverAndStatus(@Param("receiverId") Long receiverId,
+                                                     @Param("status") SwapStatus status);
+
+    @Query(DTO_SELECT + "where s.status = :status order by s.id")
+    List<SwapRequestDTO> findDtosByStatus(@Param("status") SwapStatus status);
+
+    // Full history for the admin export; must be consumed inside a transaction for the fetch size to apply
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(DTO_SELECT + "order by s.id")
+    Stream<SwapRequestDTO> streamAllDtos();
+
+    List<SwapRequest> findByCycleId(String cycleId);
+
+    // Archival candidates: finished requests older than the cutoff, oldest ids first
+    @Query("select s.id from SwapRequest s where s.status in :statuses and s.createdAt < :cutoff order by s.id")
+    List<Long> findIdsByStatusInAndCreatedAtBefore(@Param("statuses") Collection<SwapStatus> statuses,
+                                                  @Param("cutoff") LocalDateTime cutoff, Pageable page);
+
+    @Query("select min(s.createdAt) from SwapRequest s where s.status in :statuses and s.createdAt < :cutoff")
+    LocalDateTime findOldestCreatedAt(@Param("statuses") Collection<SwapStatus> statuses,
+                                      @Param("cutoff") LocalDateTime cutoff);
+
+    @Modifying
+    @Query("delete from SwapRequest s where s.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    long countByStatus(SwapStatus status);
+
+    @Query("select new org.mupro.exchanger.repository.GroupCount(s.status, count(s)) " +
+            "from SwapRequest s group by s.status")
+    List<GroupCount> countGroupedByStatus();
+
+    @Query("select new org.mupro.exchanger.repository.GroupCount(cast(s.createdAt as LocalDate), count(s)) " +
+            "from SwapRequest s where s.createdAt >= :since group by cast(s.createdAt as LocalDate)")
+    List<GroupCount> countCreatedPerDaySince(@Param("since") LocalDateTime since);
+
+    // Bulk approval loads requests, both participants and their jobs in one statement
+    String FETCH_PARTICIPANTS = "select s from SwapRequest s " +
+            "join fetch s.sender snd left join fetch snd.job " +
+            "join fetch s.receiver rcv left join fetch rcv.job ";
+
+    @Query(FETCH_PARTICIPANTS + "where s.id in :ids")
+    List<SwapRequest> findWithParticipantsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(FETCH_PARTICIPANTS + "where s.cycleId in :cycleIds")
+    List<SwapRequest> findWithParticipantsByCycleIdIn(@Param("cycleIds") Collection<String> cycleIds);
+
+    @Query("select s.sender.id from SwapRequest s where s.status in :statuses")
+    List<Long> findSenderIdsByStatusIn(Collection<SwapStatus> statuses);
+
+    @Query("select s.receiver.id from SwapRequest s where s.status in :statuses")
+    List<Long> findReceiverIdsByStatusIn(Collection<SwapStatus> statuses);
 }
@@ -0,0 +1,16 @@
+package org.mupro.exchanger.repository;
+
+import org.mupro.exchanger.dto.UserSummaryDTO;
+
+import java.util.List;
+
+public interface UserDirectoryRepository {
+
+    /**
+     * Returns up to {@code limit} users with an id greater than {@code afterId}, ordered by id.
+     * Null filters are left out of the generated query so each page is a single index range scan, and only the
+     * summary columns are selected.
+     */
+    List<UserSummaryDTO> findDirectoryPage(String role, String homeLocation, String jobLocation, String qualification,
+                                 Long afterId, int limit);
+}
@@ -0,0 +1,36 @@
+package org.mupro.exchanger.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.mupro.exchanger.dto.UserSummaryDTO;
+
+import java.util.List;
+
+public class UserDirectoryRepositoryImpl implements UserDirectoryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<UserSummaryDTO> findDirectoryPage(String role, String homeLocation, String jobLocation, String qualification,
+                                        Long afterId, int limit) {
+        StringBuilder jpql = new StringBuilder("select new org.mupro.exchanger.dto.UserSummaryDTO(" +
+                "u.id, u.name, u.email, u.role, u.homeLocation, u.qualification, j.title, j.location) " +
+                "from User u left join u.job j where u.id > :afterId");
+        if (role != null) jpql.append(" and u.role = :role");
+        if (homeLocation != null) jpql.append(" and u.homeLocation = :homeLocation");
+        if (jobLocation != null) jpql.append(" and j.location = :jobLocation");
+        if (qualification != null) jpql.append(" and u.qualification = :qualification");
+        jpql.append(" order by u.id");
+
+        TypedQuery<UserSummaryDTO> query = entityManager.createQuery(jpql.toString(), UserSummaryDTO.class);
+        query.setParameter("afterId", afterId);
+        if (role != null) query.setParameter("role", role);
+        if (homeLocation != null) query.setParameter("homeLocation", homeLocation);
+        if (jobLocation != null) query.setParameter("jobLocation", jobLocation);
+        if (qualification != null) query.setParameter("qualification", qualification);
+        query.setMaxResults(limit);
+        return query.getResultList();
+    }
+}
@@ -0,0 +1,7 @@
+package org.mupro.exchanger.repository;
+
+public interface UserLocationView {
+    Long getId();
+    String getJobLocation();
+    String getHomeLocation();
+}
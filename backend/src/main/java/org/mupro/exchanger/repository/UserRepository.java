@@ -1,10 +1,66 @@
 package org.mupro.exchanger.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.mupro.exchanger.dto.UserDetailDTO;
 import org.mupro.exchanger.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserDirectoryRepository {
     Optional<User> findByEmail(String email);
+
+    @Query("select u.email from User u where u.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Query("select u.id from User u where u.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    // The user payload embeds the job, so its version is part of the stamp
+    String STAMP_SELECT = "select new org.mupro.exchanger.repository.VersionStamp(u.id, u.version, j.version) " +
+            "from User u left join u.job j ";
+
+    @Query(STAMP_SELECT + "where u.id = :id")
+    List<VersionStamp> findStampsById(@Param("id") Long id);
+
+    @Query(STAMP_SELECT + "where u.email = :email")
+    List<VersionStamp> findStampsByEmail(@Param("email") String email);
+
+    String DETAIL_SELECT = "select new org.mupro.exchanger.dto.UserDetailDTO(u.id, u.name, u.email, u.role, " +
+            "u.homeLocation, u.qualification, j.id, j.title, j.location, j.description) from User u left join u.job j ";
+
+    @Query(DETAIL_SELECT + "where u.id = :id")
+    Optional<UserDetailDTO> findDetailById(@Param("id") Long id);
+
+    @Query(DETAIL_SELECT + "where u.email = :email")
+    Optional<UserDetailDTO> findDetailByEmail(@Param("email") String email);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(DETAIL_SELECT + "order by u.id")
+    Stream<UserDetailDTO> streamAllDetails();
+
+    // Admin statistics: per-user buckets, from which the user counters are derived
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select u.id as id, u.role as role, j.location as jobLocation from User u left join u.job j")
+    Stream<UserStatsView> streamStatsViews();
+
+    // Warm-up of the search index: only the searchable columns, streamed
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select u.id as id, u.name as name, u.qualification as qualification, u.homeLocation as homeLocation, " +
+            "j.title as jobTitle, j.location as jobLocation from User u left join u.job j")
+    Stream<UserSearchView> streamSearchViews();
+
+    @Query("select u from User u join fetch u.job")
+    List<User> findAllWithJob();
+
+    @Query("select u.id as id, j.location as jobLocation, u.homeLocation as homeLocation " +
+            "from User u join u.job j where u.homeLocation is not null and j.location is not null")
+    List<UserLocationView> findAllLocations();
 }
@@ -0,0 +1,10 @@
+package org.mupro.exchanger.repository;
+
+public interface UserSearchView {
+    Long getId();
+    String getName();
+    String getQualification();
+    String getHomeLocation();
+    String getJobTitle();
+    String getJobLocation();
+}
@@ -0,0 +1,7 @@
+package org.mupro.exchanger.repository;
+
+public interface UserStatsView {
+    Long getId();
+    String getRole();
+    String getJobLocation();
+}
@@ -0,0 +1,58 @@
+package org.mupro.exchanger.repository;
+
+import org.springframework.util.DigestUtils;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Id and versions of one row behind a payload: the row's own version and those of the rows embedded in its DTO.
+ * Read by a projection of a few numbers per row instead of the entities. The ETag of a list is a digest of the
+ * stamps of its rows in id order. A row's versions only grow while it exists, so every insert, update or delete
+ * changes what is digested; unlike a sum or a count, two different states only share an ETag on an MD5
+ * collision, which is why the ETag can be strong.
+ */
+public class VersionStamp {
+    private final long id;
+    private final long[] versions;
+
+    public VersionStamp(Long id, Long version) {
+        this(id, new long[]{orZero(version)});
+    }
+
+    public VersionStamp(Long id, Long version, Long embeddedVersion) {
+        this(id, new long[]{orZero(version), orZero(embeddedVersion)});
+    }
+
+    public VersionStamp(Long id, Long version, Long firstEmbeddedVersion, Long secondEmbeddedVersion) {
+        this(id, new long[]{orZero(version), orZero(firstEmbeddedVersion), orZero(secondEmbeddedVersion)});
+    }
+
+    private VersionStamp(Long id, long[] versions) {
+        this.id = orZero(id);
+        this.versions = versions;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * The ETag of the list made of these rows, which have to be in the order the list is served in.
+     */
+    public static String toETag(String prefix, List<VersionStamp> stamps) {
+        int width = stamps.isEmpty() ? 0 : 1 + stamps.get(0).versions.length;
+        ByteBuffer buffer = ByteBuffer.allocate(stamps.size() * width * Long.BYTES);
+        for (VersionStamp stamp : stamps) {
+            buffer.putLong(stamp.id);
+            for (long version : stamp.versions) {
+                buffer.putLong(version);
+            }
+        }
+        return "\"" + prefix + "-" + stamps.size() + "-" + DigestUtils.md5DigestAsHex(buffer.array()) + "\"";
+    }
+
+    private static long orZero(Long value) {
+        return value != null ? value : 0;
+    }
+}
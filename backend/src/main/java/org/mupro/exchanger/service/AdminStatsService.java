@@ -0,0 +1,244 @@
+package org.mupro.exchanger.service;
+
+import org.mupro.exchanger.dto.AdminStatsDTO;
+import org.mupro.exchanger.event.SwapStatusChangedEvent;
+import org.mupro.exchanger.event.UserChangedEvent;
+import org.mupro.exchanger.model.SwapRequest;
+import org.mupro.exchanger.model.SwapStatus;
+import org.mupro.exchanger.model.User;
+import org.mupro.exchanger.repository.GroupCount;
+import org.mupro.exchanger.repository.SwapRequestHistoryRepository;
+import org.mupro.exchanger.repository.SwapRequestRepository;
+import org.mupro.exchanger.repository.UserRepository;
+import org.mupro.exchanger.repository.UserStatsView;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Counters behind {@code /api/admin/stats}: users by role and job location, swap requests by status and swap
+ * requests created per day. They are kept up to date from committed {@link UserChangedEvent}s and
+ * {@link SwapStatusChangedEvent}s, so a read only copies a few small maps. Every
+ * {@code admin.stats.reconcile-interval} the counts are replaced by {@code group by} queries, which corrects
+ * drift from changes that publish no event, such as a job moving location. The user counts are rebuilt from
+ * fresh per-user buckets, so the buckets later events move users out of agree with the counts they adjust.
+ */
+@Service
+public class AdminStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(AdminStatsService.class);
+
+    static final String NONE = "none";
+
+    private final UserRepository userRepository;
+    private final SwapRequestRepository swapRequestRepository;
+    private final SwapRequestHistoryRepository swapRequestHistoryRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int days;
+
+    // Which bucket each user is counted in, so an update can move them out of the old one. Guarded by userLock
+    // together with the user counters, which are only ever changed with it
+    private final Object userLock = new Object();
+    private Map<Long, Bucket> userBuckets = new HashMap<>();
+    // Users changed by events while reconcile() reads the buckets; their live bucket wins over the read one
+    private Set<Long> changedDuringRebuild;
+    private final Map<String, AtomicLong> usersByRole = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> usersByJobLocation = new ConcurrentHashMap<>();
+    private final Map<SwapStatus, AtomicLong> swapsByStatus = new EnumMap<>(SwapStatus.class);
+    private final Map<LocalDate, AtomicLong> swapsCreatedByDay = new ConcurrentHashMap<>();
+    private volatile LocalDateTime reconciledAt;
+
+    public AdminStatsService(UserRepository userRepository, SwapRequestRepository swapRequestRepository,
+                             SwapRequestHistoryRepository swapRequestHistoryRepository,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${admin.stats.days:30}") int days) {
+        this.userRepository = userRepository;
+        this.swapRequestRepository = swapRequestRepository;
+        this.swapRequestHistoryRepository = swapRequestHistoryRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.days = days;
+        for (SwapStatus status : SwapStatus.values()) {
+            swapsByStatus.put(status, new AtomicLong());
+        }
+    }
+
+    public AdminStatsDTO getStats() {
+        AdminStatsDTO stats = new AdminStatsDTO();
+        Map<String, Long> byRole = snapshot(usersByRole);
+        stats.setTotalUsers(byRole.values().stream().mapToLong(Long::longValue).sum());
+        stats.setUsersByRole(byRole);
+        stats.setUsersByJobLocation(snapshot(usersByJobLocation));
+        Map<String, Long> byStatus = new HashMap<>();
+        swapsByStatus.forEach((status, count) -> byStatus.put(status.name(), count.get()));
+        stats.setSwapsByStatus(byStatus);
+        LocalDate firstDay = LocalDate.now().minusDays(days - 1);
+        Map<String, Long> byDay = new TreeMap<>();
+        swapsCreatedByDay.forEach((day, count) -> {
+            if (!day.isBefore(firstDay) && count.get() > 0) {
+                byDay.put(day.toString(), count.get());
+            }
+        });
+        stats.setSwapsCreatedByDay(byDay);
+        stats.setReconciledAt(reconciledAt != null ? reconciledAt.toString() : null);
+        return stats;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        User user = event.getUser();
+        if (user.getId() == null) {
+            return;
+        }
+        Bucket bucket = event.isDeleted() ? null : Bucket.of(user.getRole(),
+                user.getJob() != null ? user.getJob().getLocation() : null);
+        synchronized (userLock) {
+            Bucket previous = bucket != null ? userBuckets.put(user.getId(), bucket) : userBuckets.remove(user.getId());
+            if (previous != null) {
+                adjust(previous, -1);
+            }
+            if (bucket != null) {
+                adjust(bucket, 1);
+            }
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.add(user.getId());
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSwapStatusChanged(SwapStatusChangedEvent event) {
+        SwapRequest swap = event.getSwapRequest();
+        SwapStatus previous = event.getPreviousStatus();
+        if (previous != null) {
+            swapsByStatus.get(previous).decrementAndGet();
+        } else if (swap.getCreatedAt() != null) {
+            swapsCreatedByDay.computeIfAbsent(swap.getCreatedAt().toLocalDate(), day -> new AtomicLong())
+                    .incrementAndGet();
+        }
+        swapsByStatus.get(swap.getStatus()).incrementAndGet();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reconcile();
+    }
+
+    /**
+     * Replaces every counter with a fresh {@code group by}, and the user buckets with a fresh read from which
+     * the user counters are derived. Users changed by an event during that read keep the bucket the event
+     * gave them. For swaps, an event committing between a query and the assignment is lost until the next
+     * run; the error is bounded by the traffic of that instant.
+     */
+    @Scheduled(fixedDelayString = "${admin.stats.reconcile-interval:PT10M}",
+            initialDelayString = "${admin.stats.reconcile-interval:PT10M}")
+    public void reconcile() {
+        rebuildUserBuckets();
+        readOnlyTransaction.executeWithoutResult(status -> {
+            Map<String, Long> byStatus = sum(swapRequestRepository.countGroupedByStatus(),
+                    swapRequestHistoryRepository.countGroupedByStatus());
+            swapsByStatus.forEach((swapStatus, count) -> count.set(byStatus.getOrDefault(swapStatus.name(), 0L)));
+
+            LocalDateTime since = LocalDate.now().minusDays(days - 1).atStartOfDay();
+            Map<String, Long> byDay = sum(swapRequestRepository.countCreatedPerDaySince(since),
+                    swapRequestHistoryRepository.countCreatedPerDaySince(since));
+            swapsCreatedByDay.keySet().removeIf(day -> !byDay.containsKey(day.toString()));
+            byDay.forEach((day, count) ->
+                    swapsCreatedByDay.computeIfAbsent(LocalDate.parse(day), key -> new AtomicLong()).set(count));
+        });
+        reconciledAt = LocalDateTime.now();
+        log.debug("Admin statistics reconciled");
+    }
+
+    private void rebuildUserBuckets() {
+        synchronized (userLock) {
+            changedDuringRebuild = new HashSet<>();
+        }
+        Map<Long, Bucket> fresh = new HashMap<>();
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<UserStatsView> users = userRepository.streamStatsViews()) {
+                    users.forEach(user -> fresh.put(user.getId(), Bucket.of(user.getRole(), user.getJobLocation())));
+                }
+            });
+        } catch (RuntimeException e) {
+            synchronized (userLock) {
+                changedDuringRebuild = null;
+            }
+            throw e;
+        }
+        synchronized (userLock) {
+            for (Long id : changedDuringRebuild) {
+                Bucket live = userBuckets.get(id);
+                if (live != null) {
+                    fresh.put(id, live);
+                } else {
+                    fresh.remove(id);
+                }
+            }
+            changedDuringRebuild = null;
+            userBuckets = fresh;
+            Map<String, Long> byRole = new HashMap<>();
+            Map<String, Long> byJobLocation = new HashMap<>();
+            fresh.values().forEach(bucket -> {
+                byRole.merge(bucket.role, 1L, Long::sum);
+                byJobLocation.merge(bucket.jobLocation, 1L, Long::sum);
+            });
+            replace(usersByRole, byRole);
+            replace(usersByJobLocation, byJobLocation);
+        }
+    }
+
+    private void adjust(Bucket bucket, long delta) {
+        usersByRole.computeIfAbsent(bucket.role, key -> new AtomicLong()).addAndGet(delta);
+        usersByJobLocation.computeIfAbsent(bucket.jobLocation, key -> new AtomicLong()).addAndGet(delta);
+    }
+
+    private static void replace(Map<String, AtomicLong> counters, Map<String, Long> fresh) {
+        counters.keySet().removeIf(key -> !fresh.containsKey(key));
+        fresh.forEach((key, count) -> counters.computeIfAbsent(key, k -> new AtomicLong()).set(count));
+    }
+
+    private static Map<String, Long> sum(List<GroupCount> first, List<GroupCount> second) {
+        Map<String, Long> totals = new HashMap<>();
+        Stream.concat(first.stream(), second.stream())
+                .forEach(row -> totals.merge(row.getKey() != null ? row.getKey() : NONE, row.getCount(), Long::sum));
+        return totals;
+    }
+
+    private static Map<String, Long> snapshot(Map<String, AtomicLong> counters) {
+        Map<String, Long> copy = new TreeMap<>();
+        counters.forEach((key, count) -> {
+            if (count.get() > 0) {
+                copy.put(key, count.get());
+            }
+        });
+        return copy;
+    }
+
+    private record Bucket(String role, String jobLocation) {
+        static Bucket of(String role, String jobLocation) {
+            return new Bucket(role != null ? role : NONE, jobLocation != null ? jobLocation : NONE);
+        }
+    }
+}
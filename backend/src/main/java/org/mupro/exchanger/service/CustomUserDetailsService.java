@@ -1,8 +1,11 @@
 package org.mupro.exchanger.service;
 
+import org.mupro.exchanger.event.UserChangedEvent;
 import org.mupro.exchanger.model.User;
 import org.mupro.exchanger.repository.UserRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -10,12 +13,14 @@ import org.springframework.stereotype.Service;
 import java.util.Optional;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public CustomUserDetailsService(UserRepository userRepository) {
+    public CustomUserDetailsService(UserRepository userRepository, ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -28,4 +33,17 @@ public class CustomUserDetailsService implements UserDetailsService {
         
         return userOptional.get();
     }
-} 
\ No newline at end of file
+
+    /**
+     * Called after a successful login whose stored hash is weaker than {@code security.bcrypt.strength}.
+     * The password is already encoded, so this bypasses {@link UserService#saveUser(User)}, which would hash it again.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        User entity = (User) user;
+        entity.setPassword(newPassword);
+        User saved = userRepository.save(entity);
+        eventPublisher.publishEvent(new UserChangedEvent(saved, false));
+        return saved;
+    }
+}
@@ -0,0 +1,18 @@
+package org.mupro.exchanger.service;
+
+import java.util.Locale;
+
+/**
+ * Wire formats of the admin export and import endpoints.
+ */
+public enum DataFormat {
+    NDJSON, CSV;
+
+    public static DataFormat parse(String value) {
+        try {
+            return valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported format: " + value);
+        }
+    }
+}
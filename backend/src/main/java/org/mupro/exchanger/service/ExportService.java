@@ -0,0 +1,151 @@
+package org.mupro.exchanger.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.mupro.exchanger.repository.SwapRequestHistoryRepository;
+import org.mupro.exchanger.repository.SwapRequestRepository;
+import org.mupro.exchanger.repository.UserRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Writes users and the swap history to an output stream, one row at a time. Rows come from a DTO projection
+ * read with a server-side cursor, so neither the persistence context nor the response holds more than the
+ * current fetch batch, whatever the table size.
+ */
+@Service
+public class ExportService {
+
+    private static final String[] USER_COLUMNS = {"id", "name", "email", "role", "homeLocation", "qualification",
+            "jobId", "jobTitle", "jobLocation", "jobDescription"};
+
+    private static final String[] SWAP_COLUMNS = {"id", "requesterId", "requesterName", "targetId", "targetName",
+            "status", "createdAt", "cycleId"};
+
+    private final UserRepository userRepository;
+    private final SwapRequestRepository swapRequestRepository;
+    private final SwapRequestHistoryRepository swapRequestHistoryRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ExportService(UserRepository userRepository, SwapRequestRepository swapRequestRepository,
+                         SwapRequestHistoryRepository swapRequestHistoryRepository, ObjectMapper objectMapper,
+                         PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.swapRequestRepository = swapRequestRepository;
+        this.swapRequestHistoryRepository = swapRequestHistoryRepository;
+        this.objectMapper = objectMapper;
+        // PostgreSQL only honours the fetch size with autocommit off, i.e. inside a transaction
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public void exportUsers(DataFormat format, OutputStream out) {
+        export(userRepository::streamAllDetails, format, USER_COLUMNS, user -> new Object[]{
+                user.getId(), user.getName(), user.getEmail(), user.getRole(), user.getHomeLocation(),
+                user.getQualification(), user.getJobId(), user.getJobTitle(), user.getJobLocation(),
+                user.getJobDescription()}, out);
+    }
+
+    // Live requests, then the archive. concat pulls from each cursor in turn; flatMap would buffer the archive
+    public void exportSwaps(DataFormat format, OutputStream out) {
+        export(() -> Stream.concat(swapRequestRepository.streamAllDtos(), swapRequestHistoryRepository.streamAllDtos()),
+                format, SWAP_COLUMNS, swap -> new Object[]{
+                swap.getId(), swap.getRequesterId(), swap.getRequesterName(), swap.getTargetId(),
+                swap.getTargetName(), swap.getStatus(), swap.getCreatedAt(), swap.getCycleId()}, out);
+    }
+
+    private <T> void export(Supplier<Stream<T>> query, DataFormat format, String[] columns,
+                            Function<T, Object[]> values, OutputStream out) {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<T> rows = query.get()) {
+                if (format == DataFormat.CSV) {
+                    writeCsv(rows.iterator(), columns, values, out);
+                } else {
+                    writeNdjson(rows.iterator(), out);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private <T> void writeNdjson(Iterator<T> rows, OutputStream out) throws IOException {
+        // Let the generator's buffer fill instead of flushing per row; the container owns and closes the stream
+        try (SequenceWriter writer = objectMapper.writer()
+                .withRootValueSeparator("\n")
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .writeValues(out)) {
+            if (!rows.hasNext()) {
+                return;
+            }
+            while (rows.hasNext()) {
+                writer.write(rows.next());
+            }
+        }
+        // The separator only goes between records; terminate the last line too
+        out.write('\n');
+        out.flush();
+    }
+
+    private <T> void writeCsv(Iterator<T> rows, String[] columns, Function<T, Object[]> values,
+                              OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writeCsvRecord(writer, columns);
+        while (rows.hasNext()) {
+            writeCsvRecord(writer, values.apply(rows.next()));
+        }
+        writer.flush();
+    }
+
+    private static void writeCsvRecord(Writer writer, Object[] fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (fields[i] instanceof CharSequence text) {
+                writeCsvField(writer, neutraliseFormula(text.toString()));
+            } else if (fields[i] != null) {
+                writeCsvField(writer, fields[i].toString());
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    // Spreadsheets run text starting with one of these as a formula; a leading apostrophe makes it a plain string
+    private static String neutraliseFormula(String value) {
+        if (!value.isEmpty() && "=+-@\t\r".indexOf(value.charAt(0)) >= 0) {
+            return "'" + value;
+        }
+        return value;
+    }
+
+    // RFC 4180: quote fields containing a separator, quote or line break, doubling embedded quotes
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
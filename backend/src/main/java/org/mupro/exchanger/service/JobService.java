@@ -1,29 +1,123 @@
 package org.mupro.exchanger.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.mupro.exchanger.model.Job;
 import org.mupro.exchanger.repository.JobRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+/**
+ * Serves the job catalog from an immutable in-memory snapshot. Reads never touch the database; writes go
+ * to the database first and then publish a new snapshot, built from a copy of the old one, with a single
+ * volatile write. The JSON list and its ETag are computed once per snapshot.
+ */
 @Service
 public class JobService {
 
     private final JobRepository jobRepository;
+    private final ObjectMapper objectMapper;
 
-    public JobService(JobRepository jobRepository) {
+    private volatile Catalog catalog;
+
+    public JobService(JobRepository jobRepository, ObjectMapper objectMapper) {
         this.jobRepository = jobRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void loadCatalog() {
+        catalog = build(jobRepository.findAll());
     }
 
     public List<Job> getAllJobs() {
-        return jobRepository.findAll();
+        return catalog().jobs;
+    }
+
+    /**
+     * The catalog as the JSON body of GET /api/jobs; the same array is returned until the catalog changes.
+     */
+    public byte[] getCatalogJson() {
+        return catalog().json;
+    }
+
+    public String getCatalogETag() {
+        return catalog().etag;
     }
 
     public Job saveJob(Job job) {
-        return jobRepository.save(job);
+        if (job.getId() != null && job.getVersion() == null) {
+            // Clients post jobs without a version; take the stored one so an update is merged rather than inserted
+            jobRepository.findById(job.getId()).ifPresent(existing -> job.setVersion(existing.getVersion()));
+        }
+        Job saved = jobRepository.save(job);
+        replace(saved);
+        return saved;
     }
 
     public Job getJobById(Long id) {
-        return jobRepository.findById(id).orElseThrow();
+        Job job = catalog().byId.get(id);
+        if (job == null) {
+            throw new NoSuchElementException("No job with id " + id);
+        }
+        return job;
+    }
+
+    // Writers are rare and serialised here; readers only ever see a complete snapshot. Saves commit before
+    // reaching this monitor, so a later commit can get here first: never let an older version replace a newer one
+    private synchronized void replace(Job saved) {
+        Job current = catalog().byId.get(saved.getId());
+        if (current != null && current.getVersion() != null && saved.getVersion() != null
+                && current.getVersion() >= saved.getVersion()) {
+            return;
+        }
+        List<Job> jobs = new ArrayList<>(catalog().jobs);
+        jobs.removeIf(job -> job.getId().equals(saved.getId()));
+        jobs.add(saved);
+        catalog = build(jobs);
+    }
+
+    private Catalog catalog() {
+        Catalog current = catalog;
+        if (current == null) {
+            // Only before ApplicationReadyEvent, e.g. in tests that never publish it
+            loadCatalog();
+            current = catalog;
+        }
+        return current;
+    }
+
+    private Catalog build(List<Job> jobs) {
+        // Detached copies, so no caller can change the shared snapshot through an entity it was handed
+        List<Job> copies = jobs.stream()
+                .map(JobService::copy)
+                .sorted(Comparator.comparing(Job::getId))
+                .toList();
+        Map<Long, Job> byId = copies.stream().collect(Collectors.toUnmodifiableMap(Job::getId, Function.identity()));
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(copies);
+            return new Catalog(copies, byId, json, "\"jobs-" + DigestUtils.md5DigestAsHex(json) + "\"");
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialise the job catalog", e);
+        }
+    }
+
+    private static Job copy(Job job) {
+        Job copy = new Job(job.getId(), job.getDescription(), job.getTitle(), job.getLocation());
+        copy.setVersion(job.getVersion());
+        return copy;
+    }
+
+    private record Catalog(List<Job> jobs, Map<Long, Job> byId, byte[] json, String etag) {
     }
 }
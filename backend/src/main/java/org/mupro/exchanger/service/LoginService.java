@@ -0,0 +1,105 @@
+package org.mupro.exchanger.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.mupro.exchanger.exception.ServiceOverloadedException;
+import org.mupro.exchanger.exception.TooManyRequestsException;
+import org.mupro.exchanger.model.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs password checks on a fixed pool of BCrypt workers with a bounded queue, so a login storm uses at most
+ * {@code security.login.threads} cores and the rest of the API keeps its CPU. The request thread is released
+ * while the check waits in the queue. When the queue is full the login is refused at once with a 503.
+ */
+@Service
+public class LoginService {
+
+    private final AuthenticationManager authenticationManager;
+    private final LoginThrottle loginThrottle;
+    private final ThreadPoolExecutor workers;
+    private final long retryAfterSeconds;
+
+    public LoginService(AuthenticationManager authenticationManager, LoginThrottle loginThrottle,
+                        @Value("${security.login.threads:0}") int threads,
+                        @Value("${security.login.queue-size:200}") int queueSize,
+                        @Value("${security.login.retry-after:2}") long retryAfterSeconds,
+                        MeterRegistry meterRegistry) {
+        this.authenticationManager = authenticationManager;
+        this.loginThrottle = loginThrottle;
+        this.retryAfterSeconds = retryAfterSeconds;
+        // Default: leave one core for everything else
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        AtomicInteger sequence = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), runnable -> {
+                    Thread thread = new Thread(runnable, "bcrypt-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        Gauge.builder("security.login.queue", workers, executor -> executor.getQueue().size())
+                .description("Logins waiting for a BCrypt worker")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Completes with the authenticated user, exceptionally with {@link BadCredentialsException} when the
+     * credentials are rejected, or exceptionally with any other exception when they could not be checked.
+     * Throws {@link TooManyRequestsException} while the email is locked out and
+     * {@link ServiceOverloadedException} when the worker queue is full.
+     */
+    public CompletableFuture<User> authenticate(String email, String password) {
+        // Reserved before queueing, so concurrent guesses count against the lockout while they wait
+        long wait = loginThrottle.tryAcquire(email);
+        if (wait > 0) {
+            throw new TooManyRequestsException("Too many failed logins, try again later", wait);
+        }
+        try {
+            return CompletableFuture.supplyAsync(() -> check(email, password), workers);
+        } catch (RejectedExecutionException e) {
+            loginThrottle.release(email);
+            throw new ServiceOverloadedException("Login is busy, try again shortly", retryAfterSeconds);
+        }
+    }
+
+    private User check(String email, String password) {
+        try {
+            Authentication authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(email, password));
+            loginThrottle.recordSuccess(email);
+            return (User) authentication.getPrincipal();
+        } catch (InternalAuthenticationServiceException e) {
+            // The user lookup failed (database down, etc.): no verdict on the password, and not a 401
+            loginThrottle.release(email);
+            throw new CompletionException(new IllegalStateException("Credentials could not be checked", e));
+        } catch (AuthenticationException e) {
+            loginThrottle.recordFailure(email);
+            // One answer for unknown email and wrong password
+            throw new CompletionException(new BadCredentialsException("Invalid email or password"));
+        } catch (RuntimeException e) {
+            loginThrottle.release(email);
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+}
@@ -0,0 +1,111 @@
+package org.mupro.exchanger.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Tracks failed logins per email. After {@code max-failures} consecutive failures the email is locked out,
+ * and every further failure doubles the lockout up to {@code max-lockout}. Checked before any password is
+ * hashed, so guessing against one account costs no BCrypt work while it is locked.
+ * <p>
+ * An attempt reserves its slot with {@link #tryAcquire(String)} before it is queued, and attempts still in
+ * flight count against the failures left before the lockout, so concurrent guesses cannot all slip through
+ * before the first failure is recorded.
+ */
+@Component
+public class LoginThrottle {
+
+    private final Cache<String, Failures> failures;
+    private final int maxFailures;
+    private final long lockoutNanos;
+    private final long maxLockoutNanos;
+
+    public LoginThrottle(@Value("${security.login.max-failures:5}") int maxFailures,
+                         @Value("${security.login.lockout:PT30S}") Duration lockout,
+                         @Value("${security.login.max-lockout:PT15M}") Duration maxLockout) {
+        this.maxFailures = maxFailures;
+        this.lockoutNanos = lockout.toNanos();
+        this.maxLockoutNanos = maxLockout.toNanos();
+        // Forget an email once it has been quiet for longer than the longest lockout
+        this.failures = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(maxLockout.multipliedBy(2))
+                .build();
+    }
+
+    /**
+     * Seconds the caller has to wait before trying this email again, or 0 if it may try now.
+     */
+    public long retryAfterSeconds(String email) {
+        Failures current = failures.getIfPresent(key(email));
+        if (current == null) {
+            return 0;
+        }
+        long remaining = current.lockedUntil - System.nanoTime();
+        return remaining > 0 ? Math.max(1, Duration.ofNanos(remaining).toSeconds()) : 0;
+    }
+
+    /**
+     * Reserves an attempt for this email and returns 0, or returns the seconds to wait when it is locked out
+     * or as many attempts are already in flight as failures are left. A reservation is ended by exactly one
+     * of {@link #recordSuccess}, {@link #recordFailure} or {@link #release}.
+     */
+    public long tryAcquire(String email) {
+        long now = System.nanoTime();
+        long[] wait = {0};
+        failures.asMap().compute(key(email), (key, current) -> {
+            Failures state = current != null ? current : new Failures(0, 0, 0);
+            long remaining = state.lockedUntil - now;
+            if (remaining > 0) {
+                wait[0] = Math.max(1, Duration.ofNanos(remaining).toSeconds());
+                return current;
+            }
+            // Past the threshold, one attempt at a time: each further failure extends the lockout
+            if (state.inFlight >= Math.max(1, maxFailures - state.count)) {
+                wait[0] = 1;
+                return current;
+            }
+            return new Failures(state.count, state.inFlight + 1, state.lockedUntil);
+        });
+        return wait[0];
+    }
+
+    public void recordFailure(String email) {
+        failures.asMap().compute(key(email), (key, current) -> {
+            int count = current != null ? current.count + 1 : 1;
+            int inFlight = current != null ? Math.max(0, current.inFlight - 1) : 0;
+            long lockedUntil = 0;
+            if (count >= maxFailures) {
+                int doublings = Math.min(count - maxFailures, 20);
+                lockedUntil = System.nanoTime() + Math.min(lockoutNanos << doublings, maxLockoutNanos);
+            }
+            return new Failures(count, inFlight, lockedUntil);
+        });
+    }
+
+    public void recordSuccess(String email) {
+        failures.invalidate(key(email));
+    }
+
+    /**
+     * Ends a reservation whose attempt produced no verdict, such as a refused queue slot or a database error.
+     */
+    public void release(String email) {
+        failures.asMap().computeIfPresent(key(email), (key, current) -> {
+            int inFlight = Math.max(0, current.inFlight - 1);
+            return inFlight == 0 && current.count == 0 ? null : new Failures(current.count, inFlight, current.lockedUntil);
+        });
+    }
+
+    private static String key(String email) {
+        return email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record Failures(int count, int inFlight, long lockedUntil) {
+    }
+}
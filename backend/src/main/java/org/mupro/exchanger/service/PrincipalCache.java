@@ -0,0 +1,84 @@
+package org.mupro.exchanger.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.mupro.exchanger.event.UserChangedEvent;
+import org.mupro.exchanger.model.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of authenticated principals by email, so a valid token does not cost a user lookup
+ * on every request. Entries are evicted whenever the user is saved or deleted, under both the current email
+ * and the one they were cached with, so an email change does not leave the old address authenticating.
+ */
+@Component
+public class PrincipalCache {
+
+    private final Cache<String, UserDetails> cache;
+    // Email each cached user was loaded under; kept in step with the cache by the removal listener
+    private final Map<Long, String> emailsByUserId = new ConcurrentHashMap<>();
+
+    public PrincipalCache(@Value("${security.principal-cache.max-size:10000}") long maxSize,
+                          @Value("${security.principal-cache.ttl:PT5M}") Duration ttl,
+                          MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                // Same-thread listener, so a removal is unlinked before any reload of the same email is linked
+                .executor(Runnable::run)
+                .removalListener((String email, UserDetails details, RemovalCause cause) -> {
+                    if (details instanceof User user && user.getId() != null) {
+                        emailsByUserId.remove(user.getId(), email);
+                    }
+                })
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "principals");
+    }
+
+    public UserDetails get(String email, Function<String, UserDetails> loader) {
+        return cache.get(email, key -> {
+            UserDetails details = loader.apply(key);
+            if (details instanceof User user && user.getId() != null) {
+                emailsByUserId.put(user.getId(), key);
+            }
+            return details;
+        });
+    }
+
+    public void evict(String email) {
+        cache.invalidate(email);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        User user = event.getUser();
+        evict(user.getEmail());
+        if (user.getId() != null) {
+            String cachedEmail = emailsByUserId.get(user.getId());
+            if (cachedEmail != null) {
+                evict(cachedEmail);
+            }
+        }
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+}
@@ -0,0 +1,77 @@
+package org.mupro.exchanger.service;
+
+import io.jsonwebtoken.Claims;
+import org.mupro.exchanger.config.JwtUtils;
+import org.mupro.exchanger.model.RefreshToken;
+import org.mupro.exchanger.repository.RefreshTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Single-use refresh tokens. Each exchange consumes the presented token and issues its successor in the same
+ * family; presenting a consumed token again means it was copied, so the whole family is revoked and both the
+ * thief and the legitimate client have to log in again.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final JwtUtils jwtUtils;
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository, JwtUtils jwtUtils) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.jwtUtils = jwtUtils;
+    }
+
+    /**
+     * A refresh token starting a new family, for a fresh login.
+     */
+    public String issue(UserDetails user) {
+        return issue(user, UUID.randomUUID().toString());
+    }
+
+    private String issue(UserDetails user, String family) {
+        String jti = UUID.randomUUID().toString();
+        refreshTokenRepository.save(new RefreshToken(jti, family, user.getUsername(),
+                LocalDateTime.now().plusSeconds(jwtUtils.getRefreshExpiration())));
+        return jwtUtils.generateRefreshToken(user, jti, family);
+    }
+
+    /**
+     * Consumes the token behind {@code claims} and returns its successor, or null when the token is unknown,
+     * expired, revoked or already used. Reuse revokes the family; that update is committed, not rolled back.
+     */
+    @Transactional
+    public String rotate(Claims claims, UserDetails user) {
+        String jti = claims.getId();
+        String family = claims.get(JwtUtils.FAMILY_CLAIM, String.class);
+        if (jti == null || family == null) {
+            return null;
+        }
+        if (refreshTokenRepository.markUsed(jti, LocalDateTime.now()) == 0) {
+            int revoked = refreshTokenRepository.revokeFamily(family);
+            if (revoked > 0) {
+                log.warn("Refresh token reuse for {}; revoked {} tokens of its family", claims.getSubject(), revoked);
+            }
+            return null;
+        }
+        return issue(user, family);
+    }
+
+    @Scheduled(cron = "${jwt.refresh-cleanup-cron:0 0 3 * * *}")
+    @Transactional
+    public void purgeExpired() {
+        // An expired token already fails signature-time validation, so its row is no longer needed
+        int deleted = refreshTokenRepository.deleteExpiredBefore(LocalDateTime.now());
+        log.debug("Purged {} expired refresh tokens", deleted);
+    }
+}
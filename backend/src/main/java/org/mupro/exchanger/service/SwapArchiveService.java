@@ -0,0 +1,121 @@
+package org.mupro.exchanger.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.mupro.exchanger.model.SwapStatus;
+import org.mupro.exchanger.repository.SwapRequestHistoryRepository;
+import org.mupro.exchanger.repository.SwapRequestRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Moves finished swap requests (approved or rejected) older than {@code swap.archive.min-age} from SwapRequest
+ * into the monthly-partitioned swaprequest_history table, so the hot table and its indexes only carry live
+ * requests. Each batch is copied and deleted in one transaction; a run stops after
+ * {@code swap.archive.max-batches} and picks up where it left off on the next schedule.
+ */
+@Service
+public class SwapArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(SwapArchiveService.class);
+
+    private static final Set<SwapStatus> TERMINAL = Set.of(SwapStatus.APPROVED, SwapStatus.REJECTED);
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("'y'yyyy'm'MM");
+
+    private final SwapRequestRepository swapRequestRepository;
+    private final SwapRequestHistoryRepository historyRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final Counter archived;
+    private final Duration minAge;
+    private final int batchSize;
+    private final int maxBatches;
+    private final boolean createPartitions;
+
+    public SwapArchiveService(SwapRequestRepository swapRequestRepository,
+                              SwapRequestHistoryRepository historyRepository,
+                              TransactionTemplate transactionTemplate, JdbcTemplate jdbcTemplate,
+                              MeterRegistry meterRegistry,
+                              @Value("${swap.archive.min-age:P90D}") Duration minAge,
+                              @Value("${swap.archive.batch-size:1000}") int batchSize,
+                              @Value("${swap.archive.max-batches:100}") int maxBatches,
+                              @Value("${swap.archive.create-partitions:true}") boolean createPartitions) {
+        this.swapRequestRepository = swapRequestRepository;
+        this.historyRepository = historyRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.jdbcTemplate = jdbcTemplate;
+        this.archived = Counter.builder("swap.archived")
+                .description("Finished swap requests moved to the history table")
+                .register(meterRegistry);
+        this.minAge = minAge;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.createPartitions = createPartitions;
+    }
+
+    @Scheduled(cron = "${swap.archive.cron:0 30 2 * * *}")
+    public void archiveScheduled() {
+        archive(LocalDateTime.now().minus(minAge));
+    }
+
+    /**
+     * Archives finished requests created before {@code cutoff}, up to the batch limit, and returns how many
+     * were moved.
+     */
+    public long archive(LocalDateTime cutoff) {
+        if (createPartitions) {
+            ensurePartitions(cutoff);
+        }
+        long moved = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            Integer count = transactionTemplate.execute(status -> moveBatch(cutoff));
+            moved += count;
+            if (count < batchSize) {
+                break;
+            }
+        }
+        if (moved > 0) {
+            archived.increment(moved);
+            log.info("Archived {} swap requests created before {}", moved, cutoff);
+        }
+        return moved;
+    }
+
+    private int moveBatch(LocalDateTime cutoff) {
+        List<Long> ids = swapRequestRepository.findIdsByStatusInAndCreatedAtBefore(
+                TERMINAL, cutoff, PageRequest.of(0, batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        historyRepository.copyFromSwapRequests(ids, LocalDateTime.now());
+        return swapRequestRepository.deleteByIdIn(ids);
+    }
+
+    // One partition per month from the oldest candidate up to the cutoff, so no row lands in the default one
+    private void ensurePartitions(LocalDateTime cutoff) {
+        LocalDateTime oldest = swapRequestRepository.findOldestCreatedAt(TERMINAL, cutoff);
+        if (oldest == null) {
+            return;
+        }
+        YearMonth last = YearMonth.from(cutoff);
+        for (YearMonth month = YearMonth.from(oldest); !month.isAfter(last); month = month.plusMonths(1)) {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS swaprequest_history_" + month.format(PARTITION_SUFFIX)
+                    + " PARTITION OF swaprequest_history FOR VALUES FROM ('" + month.atDay(1)
+                    + "') TO ('" + month.plusMonths(1).atDay(1) + "')");
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package org.mupro.exchanger.service;
+
+import org.mupro.exchanger.event.SwapStatusChangedEvent;
+import org.mupro.exchanger.model.SwapRequest;
+import org.mupro.exchanger.model.SwapStatus;
+import org.mupro.exchanger.model.User;
+import org.mupro.exchanger.repository.SwapRequestRepository;
+import org.mupro.exchanger.repository.UserLocationView;
+import org.mupro.exchanger.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Proposes multi-party rotations (A takes B's job, B takes C's, C takes A's) as grouped swap requests.
+ */
+@Service
+public class SwapCycleService {
+
+    private static final Set<SwapStatus> OPEN_STATUSES = EnumSet.of(SwapStatus.PENDING, SwapStatus.CONFIRMED_BY_USER2);
+
+    private final UserRepository userRepository;
+    private final SwapRequestRepository swapRequestRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int defaultMaxLength;
+    private final int maxLengthLimit;
+
+    public SwapCycleService(UserRepository userRepository, SwapRequestRepository swapRequestRepository,
+                            ApplicationEventPublisher eventPublisher,
+                            @Value("${swap.cycles.max-length:4}") int defaultMaxLength,
+                            @Value("${swap.cycles.max-length-limit:6}") int maxLengthLimit) {
+        this.userRepository = userRepository;
+        this.swapRequestRepository = swapRequestRepository;
+        this.eventPublisher = eventPublisher;
+        this.defaultMaxLength = Math.min(defaultMaxLength, maxLengthLimit);
+        this.maxLengthLimit = maxLengthLimit;
+    }
+
+    public List<SwapRequest> proposeCycles(Integer maxLength) {
+        // Cycle enumeration is exponential in the length, so callers cannot ask for more than the configured limit
+        int length = maxLength != null ? maxLength : defaultMaxLength;
+        if (length < 3 || length > maxLengthLimit) {
+            throw new IllegalArgumentException("maxLength must be between 3 and " + maxLengthLimit);
+        }
+
+        // Users already in an open request are left out so one person is never asked to confirm two moves
+        Set<Long> busy = new HashSet<>(swapRequestRepository.findSenderIdsByStatusIn(OPEN_STATUSES));
+        busy.addAll(swapRequestRepository.findReceiverIdsByStatusIn(OPEN_STATUSES));
+
+        List<SwapCycleSolver.Participant> participants = new ArrayList<>();
+        for (UserLocationView view : userRepository.findAllLocations()) {
+            if (!busy.contains(view.getId())) {
+                participants.add(new SwapCycleSolver.Participant(view.getId(),
+                        normalize(view.getJobLocation()), normalize(view.getHomeLocation())));
+            }
+        }
+
+        // Two-party swaps are already served by the candidate search, so rotations start at three
+        SwapCycleSolver solver = new SwapCycleSolver(ForkJoinPool.commonPool(), 3, length);
+        List<List<Long>> rotations = solver.solve(participants);
+
+        Set<Long> involved = rotations.stream().flatMap(List::stream).collect(Collectors.toSet());
+        Map<Long, User> users = userRepository.findAllById(involved).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        List<SwapRequest> requests = new ArrayList<>();
+        for (List<Long> rotation : rotations) {
+            String cycleId = UUID.randomUUID().toString();
+            for (int i = 0; i < rotation.size(); i++) {
+                SwapRequest request = new SwapRequest(users.get(rotation.get(i)),
+                        users.get(rotation.get((i + 1) % rotation.size())), SwapStatus.PENDING);
+                request.setCycleId(cycleId);
+                request.setCycleLength(rotation.size());
+                requests.add(request);
+            }
+        }
+        List<SwapRequest> saved = swapRequestRepository.saveAll(requests);
+        saved.forEach(request -> eventPublisher.publishEvent(new SwapStatusChangedEvent(request, null)));
+        return saved;
+    }
+
+    private static String normalize(String location) {
+        return location.trim().toLowerCase(Locale.ROOT);
+    }
+}
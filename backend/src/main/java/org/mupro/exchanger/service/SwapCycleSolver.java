@@ -0,0 +1,165 @@
+package org.mupro.exchanger.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Finds rotations of users who can all end up working where they live.
+ * <p>
+ * Locations are the nodes of a directed graph and every user is an edge from their job location to
+ * their home location. A cycle of locations L0 -> L1 -> ... -> L0 can be filled by one user from each
+ * edge: the user on L(i) -> L(i+1) takes the job of the user on L(i+1) -> L(i+2). Because the graph is
+ * over locations rather than users, enumeration cost depends on the number of locations, and the users
+ * on each edge are handed out afterwards, so no user is placed in two rotations.
+ */
+public class SwapCycleSolver {
+
+    private static final int SPLIT_THRESHOLD = 4;
+
+    private final ForkJoinPool pool;
+    private final int minLength;
+    private final int maxLength;
+
+    public SwapCycleSolver(ForkJoinPool pool, int minLength, int maxLength) {
+        if (minLength < 2 || maxLength < minLength) {
+            throw new IllegalArgumentException("Cycle length bounds must satisfy 2 <= min <= max");
+        }
+        this.pool = pool;
+        this.minLength = minLength;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Returns disjoint rotations. In each returned list the user at position i takes over the job of the
+     * user at position i + 1, and the last user takes over the job of the first.
+     */
+    public List<List<Long>> solve(List<Participant> participants) {
+        Map<String, Integer> nodeIds = new HashMap<>();
+        Map<Long, ArrayDeque<Long>> edges = new HashMap<>();
+        List<Set<Integer>> successors = new ArrayList<>();
+
+        for (Participant participant : participants) {
+            if (participant.jobLocation().equals(participant.homeLocation())) {
+                continue;
+            }
+            int from = nodeId(nodeIds, successors, participant.jobLocation());
+            int to = nodeId(nodeIds, successors, participant.homeLocation());
+            successors.get(from).add(to);
+            edges.computeIfAbsent(edgeKey(from, to), key -> new ArrayDeque<>()).add(participant.userId());
+        }
+
+        int[][] adjacency = new int[successors.size()][];
+        for (int node = 0; node < adjacency.length; node++) {
+            adjacency[node] = successors.get(node).stream().mapToInt(Integer::intValue).sorted().toArray();
+        }
+
+        List<int[]> cycles = pool.invoke(new CycleSearch(adjacency, 0, adjacency.length));
+        // Shorter rotations first: fewer people have to confirm, so they are the likeliest to go through
+        cycles.sort(Comparator.<int[]>comparingInt(cycle -> cycle.length).thenComparing(SwapCycleSolver::compareNodes));
+
+        List<List<Long>> rotations = new ArrayList<>();
+        for (int[] cycle : cycles) {
+            List<ArrayDeque<Long>> legs = new ArrayList<>(cycle.length);
+            int available = Integer.MAX_VALUE;
+            for (int i = 0; i < cycle.length; i++) {
+                ArrayDeque<Long> leg = edges.get(edgeKey(cycle[i], cycle[(i + 1) % cycle.length]));
+                legs.add(leg);
+                available = Math.min(available, leg.size());
+            }
+            for (int round = 0; round < available; round++) {
+                List<Long> rotation = new ArrayList<>(cycle.length);
+                for (ArrayDeque<Long> leg : legs) {
+                    rotation.add(leg.poll());
+                }
+                rotations.add(rotation);
+            }
+        }
+        return rotations;
+    }
+
+    private static int nodeId(Map<String, Integer> nodeIds, List<Set<Integer>> successors, String location) {
+        return nodeIds.computeIfAbsent(location, key -> {
+            successors.add(new LinkedHashSet<>());
+            return successors.size() - 1;
+        });
+    }
+
+    private static long edgeKey(int from, int to) {
+        return ((long) from << 32) | to;
+    }
+
+    private static int compareNodes(int[] left, int[] right) {
+        for (int i = 0; i < left.length; i++) {
+            if (left[i] != right[i]) {
+                return Integer.compare(left[i], right[i]);
+            }
+        }
+        return 0;
+    }
+
+    public record Participant(Long userId, String jobLocation, String homeLocation) {
+    }
+
+    /**
+     * Enumerates simple cycles whose smallest node is in [from, to). Every cycle is reported exactly once,
+     * starting from its smallest node, so ranges can be searched independently.
+     */
+    private final class CycleSearch extends RecursiveTask<List<int[]>> {
+        private final int[][] adjacency;
+        private final int from;
+        private final int to;
+
+        private CycleSearch(int[][] adjacency, int from, int to) {
+            this.adjacency = adjacency;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected List<int[]> compute() {
+            if (to - from > SPLIT_THRESHOLD) {
+                int middle = (from + to) >>> 1;
+                CycleSearch left = new CycleSearch(adjacency, from, middle);
+                left.fork();
+                List<int[]> cycles = new CycleSearch(adjacency, middle, to).compute();
+                cycles.addAll(left.join());
+                return cycles;
+            }
+            List<int[]> cycles = new ArrayList<>();
+            int[] path = new int[maxLength];
+            boolean[] onPath = new boolean[adjacency.length];
+            for (int start = from; start < to; start++) {
+                path[0] = start;
+                onPath[start] = true;
+                extend(start, path, 1, onPath, cycles);
+                onPath[start] = false;
+            }
+            return cycles;
+        }
+
+        private void extend(int start, int[] path, int depth, boolean[] onPath, List<int[]> cycles) {
+            for (int next : adjacency[path[depth - 1]]) {
+                if (next == start) {
+                    if (depth >= minLength) {
+                        int[] cycle = new int[depth];
+                        System.arraycopy(path, 0, cycle, 0, depth);
+                        cycles.add(cycle);
+                    }
+                } else if (next > start && !onPath[next] && depth < maxLength) {
+                    path[depth] = next;
+                    onPath[next] = true;
+                    extend(start, path, depth + 1, onPath, cycles);
+                    onPath[next] = false;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package org.mupro.exchanger.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.mupro.exchanger.dto.SwapRequestDTO;
+import org.mupro.exchanger.event.SwapStatusChangedEvent;
+import org.mupro.exchanger.model.SwapRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes swap request changes to Server-Sent Event subscribers: each participant on their own channel, and
+ * every transition on the admin channel so dashboards can keep the pending and confirmed queues current.
+ * Idle subscribers are parked servlet async requests and hold no thread; only sends and heartbeats do work.
+ * <p>
+ * Every subscriber has a bounded queue drained by at most one sender thread at a time, so a slow client only
+ * delays itself. A subscriber whose queue overflows, or whose current write has been blocked for longer than
+ * {@code swap.events.send-timeout}, is dropped and has to reconnect. Heartbeats run on their own scheduler
+ * and only enqueue, so they neither wait on clients nor hold up other scheduled jobs.
+ */
+@Service
+public class SwapEventBroadcaster {
+
+    private static final String SWAP_EVENT = "swap";
+    private static final Object CONNECTED = new Object();
+    private static final Object PING = new Object();
+
+    private final Map<Long, Set<Subscriber>> userChannels = new ConcurrentHashMap<>();
+    private final Set<Subscriber> adminChannel = ConcurrentHashMap.newKeySet();
+    private final ExecutorService sender;
+    private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "swap-events-heartbeat");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final long timeoutMillis;
+    private final long heartbeatMillis;
+    private final long sendTimeoutNanos;
+    private final int queueSize;
+
+    public SwapEventBroadcaster(@Value("${swap.events.timeout:PT30M}") Duration timeout,
+                                @Value("${swap.events.heartbeat:PT30S}") Duration heartbeat,
+                                @Value("${swap.events.send-timeout:PT10S}") Duration sendTimeout,
+                                @Value("${swap.events.queue-size:32}") int queueSize,
+                                @Value("${swap.events.send-threads:4}") int sendThreads) {
+        this.timeoutMillis = timeout.toMillis();
+        this.heartbeatMillis = heartbeat.toMillis();
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+        this.queueSize = queueSize;
+        this.sender = Executors.newFixedThreadPool(sendThreads, runnable -> {
+            Thread thread = new Thread(runnable, "swap-events");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    void startHeartbeat() {
+        heartbeats.scheduleAtFixedRate(this::heartbeat, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public SseEmitter subscribeUser(Long userId) {
+        return subscribeUser(userId, new SseEmitter(timeoutMillis));
+    }
+
+    SseEmitter subscribeUser(Long userId, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(emitter);
+        subscriber.unsubscribe = () -> userChannels.computeIfPresent(userId, (id, subscribers) -> {
+            subscribers.remove(subscriber);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+        // compute() keeps subscribe and unsubscribe atomic per user, so an emptied channel is never reused
+        userChannels.compute(userId, (id, subscribers) -> {
+            Set<Subscriber> channel = subscribers != null ? subscribers : ConcurrentHashMap.newKeySet();
+            channel.add(subscriber);
+            return channel;
+        });
+        return open(subscriber);
+    }
+
+    public SseEmitter subscribeAdmin() {
+        return subscribeAdmin(new SseEmitter(timeoutMillis));
+    }
+
+    SseEmitter subscribeAdmin(SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(emitter);
+        subscriber.unsubscribe = () -> adminChannel.remove(subscriber);
+        adminChannel.add(subscriber);
+        return open(subscriber);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSwapStatusChanged(SwapStatusChangedEvent event) {
+        SwapRequest swap = event.getSwapRequest();
+        // Build the payload on the publishing thread while the entity graph is still attached
+        SwapRequestDTO dto = SwapRequestDTO.fromEntity(swap);
+        enqueueAll(userChannels.get(swap.getSender().getId()), dto);
+        enqueueAll(userChannels.get(swap.getReceiver().getId()), dto);
+        enqueueAll(adminChannel, dto);
+    }
+
+    /**
+     * Keeps proxies from closing idle streams, finds subscribers whose connection has gone away and detaches
+     * those stuck in a write.
+     */
+    void heartbeat() {
+        long now = System.nanoTime();
+        userChannels.values().forEach(channel -> channel.forEach(subscriber -> subscriber.heartbeat(now)));
+        adminChannel.forEach(subscriber -> subscriber.heartbeat(now));
+    }
+
+    public int subscriberCount() {
+        return userChannels.values().stream().mapToInt(Set::size).sum() + adminChannel.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeats.shutdownNow();
+        sender.shutdownNow();
+    }
+
+    private SseEmitter open(Subscriber subscriber) {
+        SseEmitter emitter = subscriber.emitter;
+        emitter.onCompletion(subscriber::detach);
+        emitter.onTimeout(subscriber::detach);
+        emitter.onError(error -> subscriber.detach());
+        // Flush the response headers right away so the client sees the stream open
+        subscriber.enqueue(CONNECTED);
+        return emitter;
+    }
+
+    private static void enqueueAll(Set<Subscriber> channel, SwapRequestDTO dto) {
+        if (channel != null) {
+            channel.forEach(subscriber -> subscriber.enqueue(dto));
+        }
+    }
+
+    private static SseEmitter.SseEventBuilder toEvent(Object message) {
+        if (message == CONNECTED) {
+            return SseEmitter.event().comment("connected");
+        }
+        if (message == PING) {
+            return SseEmitter.event().comment("ping");
+        }
+        // Event builders are single-use, so one is built per send
+        SwapRequestDTO dto = (SwapRequestDTO) message;
+        return SseEmitter.event()
+                .name(SWAP_EVENT)
+                .id(dto.getId() + ":" + dto.getStatus())
+                .data(dto, MediaType.APPLICATION_JSON);
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<Object> queue = new ArrayBlockingQueue<>(queueSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean detached = new AtomicBoolean();
+        // Only drain() completes the emitter, and only once
+        private final AtomicBoolean completed = new AtomicBoolean();
+        private volatile Runnable unsubscribe = () -> {};
+        // System.nanoTime() when the write in progress started, 0 when no write is in progress
+        private volatile long sendStartedAt;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void enqueue(Object message) {
+            if (detached.get()) {
+                return;
+            }
+            if (!queue.offer(message)) {
+                // Too far behind to catch up; dropping the stream makes the client reconnect and reload.
+                // The drain that is necessarily pending completes the emitter once its current write returns.
+                detach();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        void heartbeat(long now) {
+            long started = sendStartedAt;
+            if (started != 0 && now - started > sendTimeoutNanos) {
+                // Completing here would wait on the emitter's write lock held by the stuck write; detach instead
+                // and let the write fail on the container's socket timeout, after which drain() completes it
+                detach();
+            } else {
+                enqueue(PING);
+            }
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    sender.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    draining.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                Throwable failure = null;
+                Object message;
+                while (!detached.get() && (message = queue.poll()) != null) {
+                    sendStartedAt = System.nanoTime();
+                    try {
+                        emitter.send(toEvent(message));
+                    } catch (IOException | IllegalStateException e) {
+                        // The client went away
+                        failure = e;
+                        detach();
+                    } finally {
+                        sendStartedAt = 0;
+                    }
+                }
+                if (detached.get() && completed.compareAndSet(false, true)) {
+                    if (failure != null) {
+                        emitter.completeWithError(failure);
+                    } else {
+                        emitter.complete();
+                    }
+                }
+            } finally {
+                draining.set(false);
+            }
+            // A message enqueued after the last poll but before draining was cleared found no drain to join
+            if (!detached.get() && !queue.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+
+        void detach() {
+            if (detached.compareAndSet(false, true)) {
+                queue.clear();
+                unsubscribe.run();
+            }
+        }
+    }
+}
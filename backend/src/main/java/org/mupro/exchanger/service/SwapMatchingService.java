@@ -0,0 +1,167 @@
+package org.mupro.exchanger.service;
+
+import org.mupro.exchanger.dto.SwapCandidateDTO;
+import org.mupro.exchanger.event.UserChangedEvent;
+import org.mupro.exchanger.model.Job;
+import org.mupro.exchanger.model.User;
+import org.mupro.exchanger.repository.UserRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory index of users keyed by (current job location, desired home location).
+ * A user living in H with a job in J is a mutual swap partner for anyone filed under (H, J),
+ * so finding partners is a single map lookup instead of a scan over every user.
+ */
+@Service
+public class SwapMatchingService {
+
+    static final int MAX_LIMIT = 100;
+
+    private final UserRepository userRepository;
+
+    private final Map<RouteKey, Set<Long>> usersByRoute = new ConcurrentHashMap<>();
+    private final Map<Long, MatchEntry> entries = new ConcurrentHashMap<>();
+
+    public SwapMatchingService(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadIndex() {
+        // One-off warm-up; afterwards the index only changes through UserChangedEvent
+        for (User user : userRepository.findAllWithJob()) {
+            index(user);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.isDeleted()) {
+            remove(event.getUser().getId());
+        } else {
+            index(event.getUser());
+        }
+    }
+
+    public void index(User user) {
+        if (user.getId() == null) {
+            return;
+        }
+        MatchEntry entry = MatchEntry.of(user);
+        // compute() serialises updates per user, so the old route is always removed before the new one is added
+        entries.compute(user.getId(), (id, previous) -> {
+            if (previous != null) {
+                unlink(previous);
+            }
+            if (entry != null) {
+                usersByRoute.computeIfAbsent(entry.route, key -> ConcurrentHashMap.newKeySet()).add(id);
+            }
+            return entry;
+        });
+    }
+
+    public void remove(Long userId) {
+        entries.computeIfPresent(userId, (id, previous) -> {
+            unlink(previous);
+            return null;
+        });
+    }
+
+    /**
+     * Users who hold a job where the given user lives and live where the given user's job is,
+     * best matches first.
+     */
+    public List<SwapCandidateDTO> findCandidates(Long userId, int limit) {
+        int maxCandidates = Math.max(1, Math.min(limit, MAX_LIMIT));
+        MatchEntry self = entries.get(userId);
+        if (self == null) {
+            return List.of();
+        }
+        Set<Long> partnerIds = usersByRoute.getOrDefault(self.route.reversed(), Set.of());
+
+        List<SwapCandidateDTO> candidates = new ArrayList<>(partnerIds.size());
+        for (Long partnerId : partnerIds) {
+            MatchEntry partner = entries.get(partnerId);
+            if (partner != null && !partnerId.equals(userId)) {
+                candidates.add(partner.toCandidate(score(self, partner)));
+            }
+        }
+        candidates.sort(Comparator.comparingInt(SwapCandidateDTO::getScore).reversed()
+                .thenComparing(candidate -> Long.parseLong(candidate.getUserId())));
+        return candidates.size() > maxCandidates ? candidates.subList(0, maxCandidates) : candidates;
+    }
+
+    private void unlink(MatchEntry entry) {
+        usersByRoute.computeIfPresent(entry.route, (route, ids) -> {
+            ids.remove(entry.userId);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    private static int score(MatchEntry self, MatchEntry partner) {
+        int score = 0;
+        if (self.qualification != null && self.qualification.equalsIgnoreCase(partner.qualification)) {
+            score += 2;
+        }
+        if (self.jobTitle != null && self.jobTitle.equalsIgnoreCase(partner.jobTitle)) {
+            score += 1;
+        }
+        return score;
+    }
+
+    private static String normalize(String location) {
+        return location.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record RouteKey(String jobLocation, String homeLocation) {
+        RouteKey reversed() {
+            return new RouteKey(homeLocation, jobLocation);
+        }
+    }
+
+    private static final class MatchEntry {
+        private final Long userId;
+        private final String name;
+        private final String qualification;
+        private final String homeLocation;
+        private final String jobTitle;
+        private final String jobLocation;
+        private final RouteKey route;
+
+        private MatchEntry(User user, Job job) {
+            this.userId = user.getId();
+            this.name = user.getName();
+            this.qualification = user.getQualification();
+            this.homeLocation = user.getHomeLocation();
+            this.jobTitle = job.getTitle();
+            this.jobLocation = job.getLocation();
+            this.route = new RouteKey(normalize(jobLocation), normalize(homeLocation));
+        }
+
+        static MatchEntry of(User user) {
+            Job job = user.getJob();
+            if (user.getHomeLocation() == null || job == null || job.getLocation() == null) {
+                return null;
+            }
+            MatchEntry entry = new MatchEntry(user, job);
+            // Someone already working where they live has nothing to swap
+            return Objects.equals(entry.route.jobLocation, entry.route.homeLocation) ? null : entry;
+        }
+
+        SwapCandidateDTO toCandidate(int score) {
+            return new SwapCandidateDTO(userId.toString(), name, qualification, homeLocation, jobTitle, jobLocation, score);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package org.mupro.exchanger.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.mupro.exchanger.event.SwapStatusChangedEvent;
+import org.mupro.exchanger.model.SwapRequest;
+import org.mupro.exchanger.model.SwapStatus;
+import org.mupro.exchanger.repository.SwapRequestRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Swap lifecycle metrics built from committed {@link SwapStatusChangedEvent}s:
+ * <ul>
+ *     <li>{@code swap.transitions} counts each from/to status pair ({@code from=NEW} for a new request)</li>
+ *     <li>{@code swap.transition.age} times how long after creation a request reached each status</li>
+ *     <li>{@code swap.queue.depth} gauges the pending and confirmed queues, seeded from the database at startup</li>
+ * </ul>
+ */
+@Component
+public class SwapMetrics {
+
+    private static final String NEW = "NEW";
+
+    private final MeterRegistry registry;
+    private final SwapRequestRepository swapRequestRepository;
+    private final Map<SwapStatus, AtomicLong> queueDepth = new EnumMap<>(SwapStatus.class);
+
+    public SwapMetrics(MeterRegistry registry, SwapRequestRepository swapRequestRepository) {
+        this.registry = registry;
+        this.swapRequestRepository = swapRequestRepository;
+        for (SwapStatus status : new SwapStatus[]{SwapStatus.PENDING, SwapStatus.CONFIRMED_BY_USER2}) {
+            AtomicLong depth = new AtomicLong();
+            queueDepth.put(status, depth);
+            Gauge.builder("swap.queue.depth", depth, AtomicLong::get)
+                    .description("Swap requests waiting in this status")
+                    .tag("status", status.name())
+                    .register(registry);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedQueueDepth() {
+        queueDepth.forEach((status, depth) -> depth.set(swapRequestRepository.countByStatus(status)));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSwapStatusChanged(SwapStatusChangedEvent event) {
+        SwapRequest swap = event.getSwapRequest();
+        SwapStatus previous = event.getPreviousStatus();
+        SwapStatus current = swap.getStatus();
+        String from = previous != null ? previous.name() : NEW;
+
+        Counter.builder("swap.transitions")
+                .tag("from", from)
+                .tag("to", current.name())
+                .register(registry)
+                .increment();
+        if (previous != null && swap.getCreatedAt() != null) {
+            Timer.builder("swap.transition.age")
+                    .description("Time from creation until the request reached this status")
+                    .tag("to", current.name())
+                    .register(registry)
+                    .record(Duration.between(swap.getCreatedAt(), LocalDateTime.now()));
+        }
+
+        adjust(previous, -1);
+        adjust(current, 1);
+    }
+
+    private void adjust(SwapStatus status, long delta) {
+        AtomicLong depth = status != null ? queueDepth.get(status) : null;
+        if (depth != null) {
+            depth.addAndGet(delta);
+        }
+    }
+}
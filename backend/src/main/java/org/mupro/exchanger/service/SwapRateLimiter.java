@@ -0,0 +1,119 @@
+package org.mupro.exchanger.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Token bucket per user for the mutating swap endpoints. Each bucket is a single {@link AtomicReference}
+ * updated by compare-and-set, so concurrent requests from one user never block each other and different
+ * users never share anything beyond the map bin.
+ * <p>
+ * Limits come from {@code swap.rate-limit.limits} as {@code ROLE=capacity/period} pairs; a bucket holds
+ * {@code capacity} tokens and refills completely over {@code period}. {@code *} is the fallback for other roles.
+ */
+@Component
+public class SwapRateLimiter {
+
+    private static final String ANY_ROLE = "*";
+
+    private final Map<Long, Bucket> buckets = new ConcurrentHashMap<>();
+    private final Map<String, Limit> limits;
+    private final long idleNanos;
+    private final MeterRegistry meterRegistry;
+
+    public SwapRateLimiter(@Value("${swap.rate-limit.limits:NORMALUSER=20/PT1M,ADMIN=600/PT1M,*=20/PT1M}") String limits,
+                           @Value("${swap.rate-limit.idle-eviction:PT10M}") Duration idleEviction,
+                           MeterRegistry meterRegistry) {
+        this.limits = parse(limits);
+        // A bucket idle for longer than its full refill time is indistinguishable from a new one
+        long longestRefill = this.limits.values().stream().mapToLong(limit -> limit.periodNanos).max().orElse(0);
+        this.idleNanos = Math.max(idleEviction.toNanos(), longestRefill);
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("swap.rate_limit.buckets", buckets, Map::size)
+                .description("Users with a live rate limit bucket")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Takes one token for the user and returns 0, or returns the seconds until a token is available.
+     */
+    public long tryAcquire(Long userId, String role) {
+        Limit limit = limits.getOrDefault(role, limits.get(ANY_ROLE));
+        long now = System.nanoTime();
+        Bucket bucket = buckets.computeIfAbsent(userId, id -> new Bucket(limit, now));
+        long wait = bucket.tryTake(limit, now);
+        if (wait > 0) {
+            Counter.builder("swap.rate_limit.rejections")
+                    .description("Swap requests refused by the per-user rate limit")
+                    .tag("role", role != null ? role : "NONE")
+                    .register(meterRegistry)
+                    .increment();
+            return Math.max(1, Duration.ofNanos(wait).toSeconds());
+        }
+        return 0;
+    }
+
+    @Scheduled(fixedDelayString = "${swap.rate-limit.eviction-interval:PT1M}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(bucket -> now - bucket.state.get().updatedNanos > idleNanos);
+    }
+
+    private static Map<String, Limit> parse(String spec) {
+        Map<String, Limit> parsed = new HashMap<>();
+        for (String entry : spec.split(",")) {
+            String[] roleAndLimit = entry.trim().split("=");
+            String[] capacityAndPeriod = roleAndLimit[1].trim().split("/");
+            int capacity = Integer.parseInt(capacityAndPeriod[0].trim());
+            Duration period = Duration.parse(capacityAndPeriod[1].trim());
+            if (capacity < 1 || period.isNegative() || period.isZero()) {
+                throw new IllegalArgumentException("Invalid swap rate limit: " + entry);
+            }
+            parsed.put(roleAndLimit[0].trim(), new Limit(capacity, period.toNanos()));
+        }
+        parsed.putIfAbsent(ANY_ROLE, new Limit(20, Duration.ofMinutes(1).toNanos()));
+        return parsed;
+    }
+
+    private record Limit(int capacity, long periodNanos) {
+        double tokensPerNano() {
+            return (double) capacity / periodNanos;
+        }
+    }
+
+    private record State(double tokens, long updatedNanos) {
+    }
+
+    private static final class Bucket {
+        private final AtomicReference<State> state;
+
+        private Bucket(Limit limit, long now) {
+            this.state = new AtomicReference<>(new State(limit.capacity, now));
+        }
+
+        // Returns 0 when a token was taken, otherwise the nanos until the next one is due
+        long tryTake(Limit limit, long now) {
+            while (true) {
+                State current = state.get();
+                double refilled = Math.min(limit.capacity,
+                        current.tokens + Math.max(0, now - current.updatedNanos) * limit.tokensPerNano());
+                if (refilled < 1) {
+                    return (long) Math.ceil((1 - refilled) / limit.tokensPerNano());
+                }
+                if (state.compareAndSet(current, new State(refilled - 1, Math.max(now, current.updatedNanos)))) {
+                    return 0;
+                }
+            }
+        }
+    }
+}
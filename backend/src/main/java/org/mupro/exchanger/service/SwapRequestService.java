@@ -1,25 +1,56 @@
 package org.mupro.exchanger.service;
+import org.mupro.exchanger.dto.BulkSwapResultDTO;
+import org.mupro.exchanger.dto.SwapRequestDTO;
+import org.mupro.exchanger.event.SwapStatusChangedEvent;
+import org.mupro.exchanger.event.UserChangedEvent;
+import org.mupro.exchanger.exception.SwapConflictException;
 import org.mupro.exchanger.model.SwapRequest;
 import org.mupro.exchanger.model.SwapStatus;
 import org.mupro.exchanger.model.User;
 import org.mupro.exchanger.model.Job;
+import org.mupro.exchanger.repository.SwapRequestHistoryRepository;
 import org.mupro.exchanger.repository.SwapRequestRepository;
+import org.mupro.exchanger.repository.VersionStamp;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 @Service
 public class SwapRequestService {
 
+    private static final int MAX_BULK_SIZE = 500;
+
     private final SwapRequestRepository swapRequestRepository;
-    private final UserService userService;
+    private final SwapRequestHistoryRepository swapRequestHistoryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int maxApprovalAttempts;
 
-    public SwapRequestService(SwapRequestRepository swapRequestRepository, UserService userService) {
+    public SwapRequestService(SwapRequestRepository swapRequestRepository,
+                              SwapRequestHistoryRepository swapRequestHistoryRepository,
+                              TransactionTemplate transactionTemplate, ApplicationEventPublisher eventPublisher,
+                              @Value("${swap.approval.max-attempts:3}") int maxApprovalAttempts) {
         this.swapRequestRepository = swapRequestRepository;
-        this.userService = userService;
+        this.swapRequestHistoryRepository = swapRequestHistoryRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.maxApprovalAttempts = maxApprovalAttempts;
     }
 
     public SwapRequest sendSwapRequest(User sender, User receiver) {
@@ -27,65 +58,288 @@ public class SwapRequestService {
         request.setSender(sender);
         request.setReceiver(receiver);
         request.setStatus(SwapStatus.PENDING);
-        return swapRequestRepository.save(request);
+        SwapRequest saved = swapRequestRepository.save(request);
+        eventPublisher.publishEvent(new SwapStatusChangedEvent(saved, null));
+        return saved;
     }
 
-    public List<SwapRequest> getRequestsForReceiver(User receiver) {
-        return swapRequestRepository.findByReceiverAndStatus(receiver, SwapStatus.PENDING);
+    public List<SwapRequestDTO> getRequestsForReceiver(Long receiverId) {
+        return swapRequestRepository.findDtosByReceiverAndStatus(receiverId, SwapStatus.PENDING);
     }
     
-    public List<SwapRequest> getRequestsBySender(User sender) {
-        return swapRequestRepository.findBySender(sender);
+    // Sent and full histories include archived requests; see SwapArchiveService
+
+    public List<SwapRequestDTO> getRequestsBySender(Long senderId) {
+        return merge(swapRequestRepository.findDtosBySender(senderId),
+                swapRequestHistoryRepository.findDtosBySender(senderId), dto -> Long.parseLong(dto.getId()));
     }
     
-    public List<SwapRequest> getUserSwapRequests(User user) {
-        List<SwapRequest> sent = swapRequestRepository.findBySender(user);
-        List<SwapRequest> received = swapRequestRepository.findByReceiver(user);
-        
-        return Stream.concat(sent.stream(), received.stream())
-                .collect(Collectors.toList());
+    public List<SwapRequestDTO> getUserSwapRequests(Long userId) {
+        return merge(swapRequestRepository.findDtosByParticipant(userId),
+                swapRequestHistoryRepository.findDtosByParticipant(userId), dto -> Long.parseLong(dto.getId()));
+    }
+
+    // Both lists are ordered by id, and archived ids are never reused, so a merge keeps id order
+    private static <T> List<T> merge(List<T> hot, List<T> archived, ToLongFunction<T> id) {
+        if (archived.isEmpty()) {
+            return hot;
+        }
+        List<T> merged = new ArrayList<>(hot.size() + archived.size());
+        int h = 0;
+        int a = 0;
+        while (h < hot.size() || a < archived.size()) {
+            boolean takeHot = a == archived.size()
+                    || (h < hot.size() && id.applyAsLong(hot.get(h)) < id.applyAsLong(archived.get(a)));
+            merged.add(takeHot ? hot.get(h++) : archived.get(a++));
+        }
+        return merged;
+    }
+
+    // ETags for the list endpoints, digested from the ids and versions of the same rows without loading the entities.
+    // Sent and full histories cover archived rows too, whose participants' names can still change
+
+    public String getReceivedETag(Long receiverId) {
+        return VersionStamp.toETag("received",
+                swapRequestRepository.findStampsByReceiverAndStatus(receiverId, SwapStatus.PENDING));
+    }
+
+    public String getSentETag(Long senderId) {
+        return VersionStamp.toETag("sent", merge(swapRequestRepository.findStampsBySender(senderId),
+                swapRequestHistoryRepository.findStampsBySender(senderId), VersionStamp::getId));
+    }
+
+    public String getUserSwapsETag(Long userId) {
+        return VersionStamp.toETag("swaps", merge(swapRequestRepository.findStampsByParticipant(userId),
+                swapRequestHistoryRepository.findStampsByParticipant(userId), VersionStamp::getId));
+    }
+
+    public String getStatusETag(SwapStatus status) {
+        return VersionStamp.toETag(status.name().toLowerCase(Locale.ROOT),
+                swapRequestRepository.findStampsByStatus(status));
     }
 
+    @Transactional
     public SwapRequest confirmRequest(Long requestId) {
         SwapRequest request = swapRequestRepository.findById(requestId).orElseThrow();
-        request.setStatus(SwapStatus.CONFIRMED_BY_USER2);
+        changeStatus(request, SwapStatus.CONFIRMED_BY_USER2);
         return swapRequestRepository.save(request);
     }
 
+    /**
+     * Approves a confirmed request and swaps the jobs in one transaction, retrying on optimistic lock conflicts.
+     */
     public SwapRequest approveRequest(Long requestId) {
+        return withConflictRetry("Swap request " + requestId,
+                () -> transactionTemplate.execute(status -> approveInTransaction(requestId)));
+    }
+
+    /**
+     * Approves or rejects many swaps in one transaction and reports an outcome per id. Requests, users and
+     * jobs are read with two queries, and the resulting updates are flushed as JDBC batches at commit.
+     * Within one batch a user is moved at most once: a later approval touching an already moved user is
+     * reported as a conflict and left untouched.
+     */
+    public List<BulkSwapResultDTO> applyBulk(String action, List<Long> swapIds) {
+        if (swapIds == null || swapIds.isEmpty()) {
+            return List.of();
+        }
+        if (swapIds.size() > MAX_BULK_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_SIZE + " swaps can be processed at once");
+        }
+        boolean approve;
+        if ("APPROVE".equalsIgnoreCase(action)) {
+            approve = true;
+        } else if ("REJECT".equalsIgnoreCase(action)) {
+            approve = false;
+        } else {
+            throw new IllegalArgumentException("Unknown bulk action: " + action);
+        }
+        return withConflictRetry("Bulk " + action.toLowerCase(Locale.ROOT),
+                () -> transactionTemplate.execute(status -> applyBulkInTransaction(approve, swapIds)));
+    }
+
+    private List<BulkSwapResultDTO> applyBulkInTransaction(boolean approve, List<Long> swapIds) {
+        Map<Long, SwapRequest> requests = new HashMap<>();
+        swapRequestRepository.findWithParticipantsByIdIn(new HashSet<>(swapIds))
+                .forEach(request -> requests.put(request.getId(), request));
+        Set<String> cycleIds = requests.values().stream()
+                .map(SwapRequest::getCycleId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<String, List<SwapRequest>> legsByCycle = cycleIds.isEmpty() ? Map.of()
+                : swapRequestRepository.findWithParticipantsByCycleIdIn(cycleIds).stream()
+                        .collect(Collectors.groupingBy(SwapRequest::getCycleId));
+
+        Set<Long> seen = new HashSet<>();
+        Set<String> handledCycles = new HashSet<>();
+        Set<Long> movedUsers = new HashSet<>();
+        List<BulkSwapResultDTO> results = new ArrayList<>(swapIds.size());
+        for (Long id : swapIds) {
+            SwapRequest request = requests.get(id);
+            if (!seen.add(id)) {
+                results.add(BulkSwapResultDTO.of(id, BulkSwapResultDTO.SKIPPED, "Listed more than once"));
+            } else if (request == null) {
+                results.add(BulkSwapResultDTO.of(id, BulkSwapResultDTO.NOT_FOUND, "No such swap request"));
+            } else if (request.getCycleId() != null && !handledCycles.add(request.getCycleId())) {
+                results.add(BulkSwapResultDTO.of(id, BulkSwapResultDTO.SKIPPED,
+                        "Handled together with another leg of the same rotation"));
+            } else {
+                List<SwapRequest> legs = request.getCycleId() != null
+                        ? legsByCycle.get(request.getCycleId()) : List.of(request);
+                results.add(approve ? bulkApprove(request, legs, movedUsers) : bulkReject(request, legs));
+            }
+        }
+        return results;
+    }
+
+    private BulkSwapResultDTO bulkApprove(SwapRequest request, List<SwapRequest> legs, Set<Long> movedUsers) {
+        if (!isApprovable(request, legs)) {
+            return BulkSwapResultDTO.of(request.getId(), BulkSwapResultDTO.INVALID_STATUS,
+                    "Every leg must be confirmed by the receiver before admin approval");
+        }
+        Set<Long> participants = new HashSet<>();
+        for (SwapRequest leg : legs) {
+            participants.add(leg.getSender().getId());
+            participants.add(leg.getReceiver().getId());
+        }
+        if (participants.stream().anyMatch(movedUsers::contains)) {
+            return BulkSwapResultDTO.of(request.getId(), BulkSwapResultDTO.CONFLICT,
+                    "Involves a user already moved by an earlier swap in this batch");
+        }
+        movedUsers.addAll(participants);
+        if (request.getCycleId() != null) {
+            rotateJobs(legs);
+        } else {
+            swapJobs(request);
+        }
+        return BulkSwapResultDTO.of(request.getId(), BulkSwapResultDTO.APPROVED, null);
+    }
+
+    private BulkSwapResultDTO bulkReject(SwapRequest request, List<SwapRequest> legs) {
+        if (request.getStatus() == SwapStatus.APPROVED || request.getStatus() == SwapStatus.REJECTED) {
+            return BulkSwapResultDTO.of(request.getId(), BulkSwapResultDTO.INVALID_STATUS,
+                    "Already " + request.getStatus());
+        }
+        legs.forEach(leg -> changeStatus(leg, SwapStatus.REJECTED));
+        return BulkSwapResultDTO.of(request.getId(), BulkSwapResultDTO.REJECTED, null);
+    }
+
+    private static boolean isApprovable(SwapRequest request, List<SwapRequest> legs) {
+        if (request.getCycleId() != null && legs.size() != request.getCycleLength()) {
+            return false;
+        }
+        return legs.stream().allMatch(leg -> leg.getStatus() == SwapStatus.CONFIRMED_BY_USER2);
+    }
+
+    /**
+     * User and SwapRequest are versioned, so if another approval touched the same users or requests first,
+     * the commit fails and the whole unit is retried from a fresh read, up to
+     * {@code swap.approval.max-attempts} times.
+     */
+    private <T> T withConflictRetry(String subject, Supplier<T> unitOfWork) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return unitOfWork.get();
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxApprovalAttempts) {
+                    throw new SwapConflictException(subject
+                            + " conflicts with a concurrent change to the same users, please retry", e);
+                }
+                backOff(attempt);
+            }
+        }
+    }
+
+    private SwapRequest approveInTransaction(Long requestId) {
         SwapRequest request = swapRequestRepository.findById(requestId).orElseThrow();
         if (request.getStatus() != SwapStatus.CONFIRMED_BY_USER2) {
             throw new IllegalStateException("Request must be confirmed by user2 before admin approval");
         }
+        if (request.getCycleId() != null) {
+            return approveCycle(request);
+        }
         
-        // Swap the jobs between users
+        swapJobs(request);
+        return request;
+    }
+
+    // Swap the jobs between users; the managed entities are flushed and version-checked at commit
+    private void swapJobs(SwapRequest request) {
         User sender = request.getSender();
         User receiver = request.getReceiver();
         Job senderJob = sender.getJob();
         Job receiverJob = receiver.getJob();
-        
+
         sender.setJob(receiverJob);
         receiver.setJob(senderJob);
-        
-        userService.saveUser(sender);
-        userService.saveUser(receiver);
-        
-        request.setStatus(SwapStatus.APPROVED);
-        return swapRequestRepository.save(request);
+        publishUserChanged(sender);
+        publishUserChanged(receiver);
+
+        changeStatus(request, SwapStatus.APPROVED);
     }
 
+    @Transactional
     public SwapRequest rejectRequest(Long requestId) {
         SwapRequest request = swapRequestRepository.findById(requestId).orElseThrow();
-        request.setStatus(SwapStatus.REJECTED);
+        if (request.getCycleId() != null) {
+            // A rotation cannot go ahead with a missing leg, so rejecting one leg rejects all of them
+            List<SwapRequest> legs = swapRequestRepository.findByCycleId(request.getCycleId());
+            legs.forEach(leg -> changeStatus(leg, SwapStatus.REJECTED));
+            return request;
+        }
+        changeStatus(request, SwapStatus.REJECTED);
         return swapRequestRepository.save(request);
     }
 
-    public List<SwapRequest> getPendingSwaps() {
-        return swapRequestRepository.findByStatus(SwapStatus.PENDING);
+    private SwapRequest approveCycle(SwapRequest request) {
+        List<SwapRequest> legs = swapRequestRepository.findByCycleId(request.getCycleId());
+        if (!isApprovable(request, legs)) {
+            throw new IllegalStateException("Every leg of the rotation must be confirmed before admin approval");
+        }
+        rotateJobs(legs);
+        return request;
+    }
+
+    private void rotateJobs(List<SwapRequest> legs) {
+        // Read all jobs before reassigning any, since each receiver is also the sender of the next leg
+        List<Job> receiverJobs = legs.stream().map(leg -> leg.getReceiver().getJob()).toList();
+        for (int i = 0; i < legs.size(); i++) {
+            legs.get(i).getSender().setJob(receiverJobs.get(i));
+        }
+        for (SwapRequest leg : legs) {
+            publishUserChanged(leg.getSender());
+            changeStatus(leg, SwapStatus.APPROVED);
+        }
+    }
+
+    // Listeners run after commit, so subscribers never see a transition that was rolled back
+    private void changeStatus(SwapRequest request, SwapStatus status) {
+        SwapStatus previous = request.getStatus();
+        request.setStatus(status);
+        eventPublisher.publishEvent(new SwapStatusChangedEvent(request, previous));
+    }
+
+    // Delivered to the listeners only if the approval commits
+    private void publishUserChanged(User user) {
+        eventPublisher.publishEvent(new UserChangedEvent(user, false));
+    }
+
+    private static void backOff(int attempt) {
+        try {
+            // Randomised so competing approvals do not collide again in lockstep
+            Thread.sleep(ThreadLocalRandom.current().nextLong(5, 20L * attempt));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SwapConflictException("Interrupted while retrying a conflicting approval", e);
+        }
+    }
+
+    public List<SwapRequestDTO> getPendingSwaps() {
+        return swapRequestRepository.findDtosByStatus(SwapStatus.PENDING);
     }
 
-    public List<SwapRequest> getConfirmedSwaps() {
-        return swapRequestRepository.findByStatus(SwapStatus.CONFIRMED_BY_USER2);
+    public List<SwapRequestDTO> getConfirmedSwaps() {
+        return swapRequestRepository.findDtosByStatus(SwapStatus.CONFIRMED_BY_USER2);
     }
 }
 
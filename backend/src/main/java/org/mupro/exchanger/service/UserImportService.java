@@ -0,0 +1,382 @@
+package org.mupro.exchanger.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.mupro.exchanger.dto.UserImportErrorDTO;
+import org.mupro.exchanger.dto.UserImportResultDTO;
+import org.mupro.exchanger.dto.UserImportRowDTO;
+import org.mupro.exchanger.event.UserChangedEvent;
+import org.mupro.exchanger.model.Job;
+import org.mupro.exchanger.model.User;
+import org.mupro.exchanger.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates users in bulk from a CSV or NDJSON stream. The input is read and validated row by row, and rows are
+ * written in chunks:
+ * <ol>
+ *     <li>emails already in the database are rejected with one query, before any hashing;</li>
+ *     <li>passwords are BCrypt-hashed on a dedicated pool;</li>
+ *     <li>ids are taken from {@code user_seq} a block of 50 at a time;</li>
+ *     <li>the chunk is inserted with one JDBC batch in its own transaction.</li>
+ * </ol>
+ * A bad row or a failed chunk is reported and the import carries on. Jobs are resolved against the in-memory
+ * catalog, so no row costs a job lookup. They are referenced, never created: the catalog is a few thousand
+ * rows kept through {@code /api/jobs}, so a row naming a job that does not exist yet is reported as
+ * "Unknown job" and can be re-imported once the job is added.
+ */
+@Service
+public class UserImportService {
+
+    // Must match allocationSize on User's @SequenceGenerator: one nextval reserves the ids hi-49..hi
+    private static final int ID_BLOCK = 50;
+
+    private static final Set<String> ROLES = Set.of("NORMALUSER", "ADMIN");
+
+    private static final String INSERT_SQL = "insert into \"User\" " +
+            "(id, name, email, password, role, homeLocation, qualification, job_id, version) " +
+            "values (?, ?, ?, ?, ?, ?, ?, ?, 0) on conflict do nothing";
+
+    private final UserRepository userRepository;
+    private final JobService jobService;
+    private final PasswordEncoder passwordEncoder;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService hashers;
+    private final String nextIdSql;
+    private final int chunkSize;
+    private final int maxReportedErrors;
+
+    public UserImportService(UserRepository userRepository, JobService jobService, PasswordEncoder passwordEncoder,
+                             JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                             ApplicationEventPublisher eventPublisher, ObjectMapper objectMapper,
+                             EntityManagerFactory entityManagerFactory,
+                             @Value("${users.import.threads:0}") int threads,
+                             @Value("${users.import.chunk-size:1000}") int chunkSize,
+                             @Value("${users.import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.userRepository = userRepository;
+        this.jobService = jobService;
+        this.passwordEncoder = passwordEncoder;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+        this.maxReportedErrors = maxReportedErrors;
+        // Same default as the login pool: leave one core for the rest of the API
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        AtomicInteger sequence = new AtomicInteger();
+        this.hashers = Executors.newFixedThreadPool(poolSize, runnable -> {
+            Thread thread = new Thread(runnable, "import-bcrypt-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // The dialect knows how to ask this database for the next sequence value
+        this.nextIdSql = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect()
+                .getSequenceSupport().getSequenceNextValString("user_seq");
+    }
+
+    public UserImportResultDTO importUsers(DataFormat format, InputStream in) throws IOException {
+        Import run = new Import();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        if (format == DataFormat.CSV) {
+            readCsv(reader, run);
+        } else {
+            readNdjson(reader, run);
+        }
+        writeChunk(run);
+        return run.result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashers.shutdownNow();
+    }
+
+    private void readCsv(BufferedReader reader, Import run) throws IOException {
+        CsvReader csv = new CsvReader(reader);
+        List<String> header = csv.next();
+        if (header == null) {
+            return;
+        }
+        List<String> columns = header.stream().map(column -> column.trim().toLowerCase(Locale.ROOT)).toList();
+        List<String> fields;
+        while ((fields = csv.next()) != null) {
+            UserImportRowDTO row = new UserImportRowDTO();
+            String error = null;
+            for (int i = 0; i < fields.size() && i < columns.size(); i++) {
+                String value = fields.get(i).isBlank() ? null : fields.get(i).trim();
+                try {
+                    setColumn(row, columns.get(i), value);
+                } catch (NumberFormatException e) {
+                    error = "Invalid " + header.get(i).trim() + ": " + value;
+                }
+            }
+            accept(run, csv.recordLine(), row, error);
+        }
+    }
+
+    private static void setColumn(UserImportRowDTO row, String column, String value) {
+        switch (column) {
+            case "name" -> row.setName(value);
+            case "email" -> row.setEmail(value);
+            case "password" -> row.setPassword(value);
+            case "role" -> row.setRole(value);
+            case "homelocation" -> row.setHomeLocation(value);
+            case "qualification" -> row.setQualification(value);
+            case "jobid" -> row.setJobId(value == null ? null : Long.valueOf(value));
+            case "jobtitle" -> row.setJobTitle(value);
+            case "joblocation" -> row.setJobLocation(value);
+            default -> {
+                // Unknown columns are ignored, like unknown NDJSON properties
+            }
+        }
+    }
+
+    private void readNdjson(BufferedReader reader, Import run) throws IOException {
+        String line;
+        long lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                accept(run, lineNumber, objectMapper.readValue(line, UserImportRowDTO.class), null);
+            } catch (JsonProcessingException e) {
+                accept(run, lineNumber, new UserImportRowDTO(), "Malformed JSON: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    private void accept(Import run, long line, UserImportRowDTO row, String parseError) {
+        run.result.setReceived(run.result.getReceived() + 1);
+        String error = parseError != null ? parseError : validate(run, row);
+        if (error != null) {
+            run.fail(line, row.getEmail(), error);
+            return;
+        }
+        run.chunk.add(new PendingUser(line, row, resolveJob(run, row)));
+        if (run.chunk.size() >= chunkSize) {
+            writeChunk(run);
+        }
+    }
+
+    private String validate(Import run, UserImportRowDTO row) {
+        if (row.getEmail() == null || row.getEmail().isBlank()) {
+            return "Email is required";
+        }
+        if (row.getName() == null || row.getName().isBlank()) {
+            return "Name is required";
+        }
+        if (row.getPassword() == null || row.getPassword().isEmpty()) {
+            return "Password is required";
+        }
+        if (row.getRole() == null) {
+            row.setRole("NORMALUSER");
+        } else if (!ROLES.contains(row.getRole())) {
+            return "Unknown role: " + row.getRole();
+        }
+        boolean referencesJob = row.getJobId() != null || row.getJobTitle() != null || row.getJobLocation() != null;
+        if (referencesJob && resolveJob(run, row) == null) {
+            return "Unknown job";
+        }
+        if (!run.seenEmails.add(row.getEmail())) {
+            return "Duplicate email in this import";
+        }
+        return null;
+    }
+
+    private static Job resolveJob(Import run, UserImportRowDTO row) {
+        if (row.getJobId() != null) {
+            return run.jobsById.get(row.getJobId());
+        }
+        if (row.getJobTitle() == null && row.getJobLocation() == null) {
+            return null;
+        }
+        return run.jobsByTitleAndLocation.get(jobKey(row.getJobTitle(), row.getJobLocation()));
+    }
+
+    private static String jobKey(String title, String location) {
+        return (title == null ? "" : title.toLowerCase(Locale.ROOT)) + '\u0000'
+                + (location == null ? "" : location.toLowerCase(Locale.ROOT));
+    }
+
+    private void writeChunk(Import run) {
+        List<PendingUser> chunk = new ArrayList<>(run.chunk);
+        run.chunk.clear();
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<PendingUser> inserts = chunk;
+        try {
+            // Checked up front so no BCrypt time is spent on rows that cannot be inserted
+            Set<String> existing = new HashSet<>(userRepository.findExistingEmails(
+                    chunk.stream().map(pending -> pending.row.getEmail()).toList()));
+            inserts = new ArrayList<>(chunk.size());
+            for (PendingUser pending : chunk) {
+                if (existing.contains(pending.row.getEmail())) {
+                    run.fail(pending.line, pending.row.getEmail(), "Email already registered");
+                } else {
+                    inserts.add(pending);
+                }
+            }
+            hashPasswords(inserts);
+            assignIds(inserts);
+            List<PendingUser> batch = inserts;
+            Set<PendingUser> conflicts = transactionTemplate.execute(status -> insert(batch));
+            for (PendingUser pending : inserts) {
+                if (conflicts.contains(pending)) {
+                    run.fail(pending.line, pending.row.getEmail(), "Email already registered");
+                } else {
+                    run.result.setImported(run.result.getImported() + 1);
+                }
+            }
+        } catch (DataAccessException e) {
+            for (PendingUser pending : inserts) {
+                run.fail(pending.line, pending.row.getEmail(),
+                        "Chunk failed: " + e.getMostSpecificCause().getMessage());
+            }
+        }
+    }
+
+    private void hashPasswords(List<PendingUser> users) {
+        List<CompletableFuture<Void>> hashes = new ArrayList<>(users.size());
+        for (PendingUser pending : users) {
+            hashes.add(CompletableFuture.runAsync(
+                    () -> pending.passwordHash = passwordEncoder.encode(pending.row.getPassword()), hashers));
+        }
+        CompletableFuture.allOf(hashes.toArray(new CompletableFuture[0])).join();
+    }
+
+    private void assignIds(List<PendingUser> users) {
+        long next = 0;
+        long end = 0;
+        for (PendingUser pending : users) {
+            if (next == end) {
+                Long hi = jdbcTemplate.queryForObject(nextIdSql, Long.class);
+                next = hi - ID_BLOCK + 1;
+                end = hi + 1;
+            }
+            pending.id = next++;
+        }
+    }
+
+    /**
+     * Inserts the users with one JDBC batch and returns those skipped because their email was taken after the
+     * pre-check. Must run in a transaction.
+     */
+    private Set<PendingUser> insert(List<PendingUser> users) {
+        Set<PendingUser> conflicts = new HashSet<>();
+        if (users.isEmpty()) {
+            return conflicts;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, users, users.size(), UserImportService::bind);
+        // A rewritten batch reports SUCCESS_NO_INFO for every row, skipped or not. The ids were just taken from
+        // the sequence, so the rows that went in are exactly those whose id is now in the table
+        Set<Long> inserted = new HashSet<>(userRepository.findExistingIds(
+                users.stream().map(pending -> pending.id).toList()));
+        for (PendingUser pending : users) {
+            if (!inserted.contains(pending.id)) {
+                conflicts.add(pending);
+                continue;
+            }
+            // Listeners are transactional, so they run only once the chunk has committed
+            eventPublisher.publishEvent(new UserChangedEvent(pending.toUser(), false));
+        }
+        return conflicts;
+    }
+
+    private static void bind(PreparedStatement statement, PendingUser pending) throws SQLException {
+        UserImportRowDTO row = pending.row;
+        statement.setLong(1, pending.id);
+        statement.setString(2, row.getName());
+        statement.setString(3, row.getEmail());
+        statement.setString(4, pending.passwordHash);
+        statement.setString(5, row.getRole());
+        statement.setString(6, row.getHomeLocation());
+        statement.setString(7, row.getQualification());
+        if (pending.job != null) {
+            statement.setLong(8, pending.job.getId());
+        } else {
+            statement.setNull(8, Types.BIGINT);
+        }
+    }
+
+    private final class Import {
+        final UserImportResultDTO result = new UserImportResultDTO();
+        final List<PendingUser> chunk = new ArrayList<>();
+        final Set<String> seenEmails = new HashSet<>();
+        final Map<Long, Job> jobsById = new HashMap<>();
+        final Map<String, Job> jobsByTitleAndLocation = new HashMap<>();
+
+        Import() {
+            // One snapshot of the catalog for the whole import
+            for (Job job : jobService.getAllJobs()) {
+                jobsById.put(job.getId(), job);
+                jobsByTitleAndLocation.putIfAbsent(jobKey(job.getTitle(), job.getLocation()), job);
+            }
+        }
+
+        void fail(long line, String email, String message) {
+            result.setFailed(result.getFailed() + 1);
+            if (result.getErrors().size() < maxReportedErrors) {
+                result.getErrors().add(new UserImportErrorDTO(line, email, message));
+            } else {
+                result.setErrorsTruncated(true);
+            }
+        }
+    }
+
+    private static final class PendingUser {
+        final long line;
+        final UserImportRowDTO row;
+        final Job job;
+        Long id;
+        String passwordHash;
+
+        PendingUser(long line, UserImportRowDTO row, Job job) {
+            this.line = line;
+            this.row = row;
+            this.job = job;
+        }
+
+        User toUser() {
+            User user = new User(id, row.getName(), row.getEmail(), passwordHash, row.getRole(),
+                    row.getHomeLocation(), row.getQualification(), job);
+            user.setVersion(0L);
+            return user;
+        }
+    }
+}
@@ -0,0 +1,482 @@
+package org.mupro.exchanger.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Trigram index over user name, qualification, home location and job title and location, for ranked,
+ * typo-tolerant search.
+ * <p>
+ * Text is lower-cased, stripped of accents and split into words; each word, padded as {@code "  word "},
+ * contributes its trigrams, encoded as ints over the 37-symbol alphabet {@code [ a-z0-9]}. Every version of
+ * an entry gets a new slot appended to the posting list of each of its trigrams; an update or removal only
+ * tombstones the old slot, and {@link #compact()} rebuilds the lists without them.
+ * <p>
+ * A search counts, per slot, how many query trigrams it shares, keeps the best-covered candidates, and
+ * reranks those by per-field similarity. Writers take an exclusive lock; searches share a read lock.
+ * Compaction builds the new lists from a snapshot without holding the lock, then takes the exclusive lock only
+ * to replay the writes made meanwhile and swap the lists in.
+ */
+public class UserSearchIndex {
+
+    public record Entry(Long userId, String name, String qualification, String homeLocation,
+                        String jobTitle, String jobLocation) {
+    }
+
+    public record Hit(Entry entry, double score) {
+    }
+
+    private static final int ALPHABET = 37;
+    private static final int TRIGRAM_SPACE = ALPHABET * ALPHABET * ALPHABET;
+
+    // A candidate must share this fraction of the query's trigrams; one typo costs up to three of them
+    private static final double MIN_OVERLAP = 0.4;
+    private static final double MIN_SCORE = 0.3;
+    private static final int MIN_CANDIDATES = 200;
+
+    // Name matches outrank equally good matches on the other fields
+    private static final double NAME_WEIGHT = 1.0;
+    private static final double JOB_TITLE_WEIGHT = 0.85;
+    private static final double OTHER_WEIGHT = 0.8;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Compactions run one at a time; they hold the index lock only briefly
+    private final Object compactionLock = new Object();
+    // Counting buffers sized to the slot count, reused across searches instead of allocated per query
+    private final Queue<Scratch> scratchPool = new ConcurrentLinkedQueue<>();
+
+    private Map<Long, Integer> slotsByUser = new HashMap<>();
+    private Slots slots = new Slots(1024);
+    private int tombstones;
+    // Users put or removed while a compaction builds from its snapshot, null when none is running
+    private Set<Long> changedDuringCompaction;
+
+    /**
+     * Adds the entry, replacing any previous entry for the same user.
+     */
+    public void put(Entry entry) {
+        int[] trigrams = entryTrigrams(entry);
+        lock.writeLock().lock();
+        try {
+            Integer previous = slotsByUser.get(entry.userId());
+            if (previous != null) {
+                bury(previous);
+            }
+            slotsByUser.put(entry.userId(), slots.append(entry, trigrams));
+            if (changedDuringCompaction != null) {
+                changedDuringCompaction.add(entry.userId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long userId) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotsByUser.remove(userId);
+            if (slot != null) {
+                bury(slot);
+                if (changedDuringCompaction != null) {
+                    changedDuringCompaction.add(userId);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotsByUser.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int tombstones() {
+        lock.readLock().lock();
+        try {
+            return tombstones;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rebuilds the posting lists from the live entries, dropping tombstoned slots. Searches and writes go on
+     * while the lists are built; they only wait for the replay of concurrent writes and the swap.
+     */
+    public void compact() {
+        compact(() -> {
+        });
+    }
+
+    // afterSnapshot runs between taking the snapshot and building from it
+    void compact(Runnable afterSnapshot) {
+        synchronized (compactionLock) {
+            Entry[] snapshot;
+            lock.writeLock().lock();
+            try {
+                // A copy, because writers null out buried slots of the live array
+                snapshot = Arrays.copyOf(slots.entries, slots.count);
+                changedDuringCompaction = new HashSet<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            try {
+                afterSnapshot.run();
+                Map<Long, Integer> compactedSlotsByUser = new HashMap<>();
+                Slots compacted = new Slots(Math.max(1024, snapshot.length - tombstonesIn(snapshot)));
+                for (Entry entry : snapshot) {
+                    if (entry != null) {
+                        compactedSlotsByUser.put(entry.userId(), compacted.append(entry, entryTrigrams(entry)));
+                    }
+                }
+                swapIn(compacted, compactedSlotsByUser);
+            } finally {
+                if (changedDuringCompaction != null) {
+                    lock.writeLock().lock();
+                    changedDuringCompaction = null;
+                    lock.writeLock().unlock();
+                }
+            }
+        }
+    }
+
+    private void swapIn(Slots compacted, Map<Long, Integer> compactedSlotsByUser) {
+        lock.writeLock().lock();
+        try {
+            // The snapshot's version of a changed user is stale: bury it and append the live one, if any
+            int buried = 0;
+            for (Long userId : changedDuringCompaction) {
+                Integer stale = compactedSlotsByUser.remove(userId);
+                if (stale != null) {
+                    compacted.entries[stale] = null;
+                    buried++;
+                }
+                Integer live = slotsByUser.get(userId);
+                if (live != null) {
+                    Entry entry = slots.entries[live];
+                    compactedSlotsByUser.put(userId, compacted.append(entry, entryTrigrams(entry)));
+                }
+            }
+            slots = compacted;
+            slotsByUser = compactedSlotsByUser;
+            tombstones = buried;
+            changedDuringCompaction = null;
+            scratchPool.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static int tombstonesIn(Entry[] snapshot) {
+        int count = 0;
+        for (Entry entry : snapshot) {
+            if (entry == null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Up to {@code limit} entries matching the query, best first. Scores are between 0 and 1.
+     */
+    public List<Hit> search(String query, int limit) {
+        int[] queryTrigrams = trigrams(query);
+        if (queryTrigrams.length == 0 || limit <= 0) {
+            return List.of();
+        }
+        int minMatches = Math.max(1, (int) Math.ceil(queryTrigrams.length * MIN_OVERLAP));
+        int candidateLimit = Math.max(limit * 10, MIN_CANDIDATES);
+        List<Hit> hits = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            Slots slots = this.slots;
+            Scratch scratch = borrowScratch(slots.count);
+            int[] counts = scratch.counts;
+            int[] touched = scratch.touched;
+            int touchedCount = 0;
+            for (int trigram : queryTrigrams) {
+                int[] list = slots.postings[trigram];
+                int size = slots.postingSizes[trigram];
+                for (int i = 0; i < size; i++) {
+                    int slot = list[i];
+                    if (counts[slot]++ == 0) {
+                        touched[touchedCount++] = slot;
+                    }
+                }
+            }
+
+            // Min-heap of (shared trigrams << 32 | slot): the best-covered live candidates
+            long[] heap = scratch.heap(candidateLimit);
+            int heapSize = 0;
+            for (int i = 0; i < touchedCount; i++) {
+                int slot = touched[i];
+                int count = counts[slot];
+                counts[slot] = 0;
+                if (count < minMatches || slots.entries[slot] == null) {
+                    continue;
+                }
+                long key = ((long) count << 32) | slot;
+                if (heapSize < candidateLimit) {
+                    heap[heapSize] = key;
+                    siftUp(heap, heapSize++);
+                } else if (key > heap[0]) {
+                    heap[0] = key;
+                    siftDown(heap, heapSize);
+                }
+            }
+            // Every touched count is back to zero, so the buffers can be reused
+            scratchPool.offer(scratch);
+
+            for (int i = 0; i < heapSize; i++) {
+                Entry entry = slots.entries[(int) heap[i]];
+                double coverage = (double) (heap[i] >>> 32) / queryTrigrams.length;
+                double score = score(entry, queryTrigrams, coverage);
+                if (score >= MIN_SCORE) {
+                    hits.add(new Hit(entry, score));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        hits.sort(Comparator.comparingDouble(Hit::score).reversed()
+                .thenComparing(hit -> hit.entry().userId()));
+        return hits.size() > limit ? List.copyOf(hits.subList(0, limit)) : hits;
+    }
+
+    private void bury(int slot) {
+        slots.entries[slot] = null;
+        tombstones++;
+    }
+
+    private Scratch borrowScratch(int slots) {
+        Scratch scratch = scratchPool.poll();
+        while (scratch != null && scratch.counts.length < slots) {
+            scratch = scratchPool.poll();
+        }
+        // Headroom so a growing index does not replace every buffer on each insert
+        return scratch != null ? scratch : new Scratch(slots + (slots >> 3) + 64);
+    }
+
+    /**
+     * Blends how well the best single field matches with how much of the query the entry covers across all
+     * fields, so "name location" queries favour entries that match both.
+     */
+    private static double score(Entry entry, int[] query, double coverage) {
+        double best = Math.max(NAME_WEIGHT * fieldSimilarity(query, entry.name()),
+                JOB_TITLE_WEIGHT * fieldSimilarity(query, entry.jobTitle()));
+        best = Math.max(best, OTHER_WEIGHT * fieldSimilarity(query, entry.qualification()));
+        best = Math.max(best, OTHER_WEIGHT * fieldSimilarity(query, entry.homeLocation()));
+        best = Math.max(best, OTHER_WEIGHT * fieldSimilarity(query, entry.jobLocation()));
+        return 0.7 * best + 0.3 * coverage;
+    }
+
+    // Dice similarity against the whole field and against each of its words, whichever is higher
+    private static double fieldSimilarity(int[] query, String field) {
+        List<String> words = words(field);
+        if (words.isEmpty()) {
+            return 0;
+        }
+        double best = dice(query, trigrams(words));
+        if (words.size() > 1) {
+            for (String word : words) {
+                best = Math.max(best, dice(query, trigrams(List.of(word))));
+            }
+        }
+        return best;
+    }
+
+    private static double dice(int[] a, int[] b) {
+        int shared = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) {
+                shared++;
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return 2.0 * shared / (a.length + b.length);
+    }
+
+    private static int[] entryTrigrams(Entry entry) {
+        List<String> words = new ArrayList<>();
+        words.addAll(words(entry.name()));
+        words.addAll(words(entry.qualification()));
+        words.addAll(words(entry.homeLocation()));
+        words.addAll(words(entry.jobTitle()));
+        words.addAll(words(entry.jobLocation()));
+        return trigrams(words);
+    }
+
+    static int[] trigrams(String text) {
+        return trigrams(words(text));
+    }
+
+    // Sorted, distinct trigram codes of the words
+    private static int[] trigrams(List<String> words) {
+        int total = 0;
+        for (String word : words) {
+            total += word.length() + 1;
+        }
+        int[] codes = new int[total];
+        int n = 0;
+        for (String word : words) {
+            int first = 0;
+            int second = 0;
+            for (int i = 0; i <= word.length(); i++) {
+                int third = i < word.length() ? symbol(word.charAt(i)) : 0;
+                codes[n++] = (first * ALPHABET + second) * ALPHABET + third;
+                first = second;
+                second = third;
+            }
+        }
+        Arrays.sort(codes, 0, n);
+        int distinct = 0;
+        for (int i = 0; i < n; i++) {
+            if (distinct == 0 || codes[distinct - 1] != codes[i]) {
+                codes[distinct++] = codes[i];
+            }
+        }
+        return Arrays.copyOf(codes, distinct);
+    }
+
+    private static int symbol(char c) {
+        return c <= '9' ? 27 + (c - '0') : 1 + (c - 'a');
+    }
+
+    // Lower-case ASCII words; accents are dropped and anything else separates words
+    static List<String> words(String text) {
+        if (text == null || text.isEmpty()) {
+            return List.of();
+        }
+        String folded = text;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) > 127) {
+                folded = Normalizer.normalize(text, Normalizer.Form.NFD);
+                break;
+            }
+        }
+        List<String> words = new ArrayList<>(2);
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < folded.length(); i++) {
+            char c = Character.toLowerCase(folded.charAt(i));
+            if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')) {
+                word.append(c);
+            } else if (Character.getType(c) != Character.NON_SPACING_MARK && !word.isEmpty()) {
+                words.add(word.toString());
+                word.setLength(0);
+            }
+        }
+        if (!word.isEmpty()) {
+            words.add(word.toString());
+        }
+        return words;
+    }
+
+    private static void siftUp(long[] heap, int index) {
+        long key = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap[parent] <= key) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = key;
+    }
+
+    private static void siftDown(long[] heap, int size) {
+        long key = heap[0];
+        int index = 0;
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && heap[child + 1] < heap[child]) {
+                child++;
+            }
+            if (key <= heap[child]) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = key;
+    }
+
+    // Posting lists and the entries their slots point to; compaction fills a new one beside the live one
+    private static final class Slots {
+        final int[][] postings = new int[TRIGRAM_SPACE][];
+        final int[] postingSizes = new int[TRIGRAM_SPACE];
+        Entry[] entries;
+        int count;
+
+        Slots(int capacity) {
+            entries = new Entry[capacity];
+        }
+
+        int append(Entry entry, int[] trigrams) {
+            if (count == entries.length) {
+                entries = Arrays.copyOf(entries, entries.length * 2);
+            }
+            int slot = count++;
+            entries[slot] = entry;
+            for (int trigram : trigrams) {
+                int[] list = postings[trigram];
+                int size = postingSizes[trigram];
+                if (list == null) {
+                    list = postings[trigram] = new int[4];
+                } else if (size == list.length) {
+                    list = postings[trigram] = Arrays.copyOf(list, size + (size >> 1));
+                }
+                list[size] = slot;
+                postingSizes[trigram] = size + 1;
+            }
+            return slot;
+        }
+    }
+
+    private static final class Scratch {
+        final int[] counts;
+        final int[] touched;
+        long[] heap = new long[0];
+
+        Scratch(int capacity) {
+            counts = new int[capacity];
+            touched = new int[capacity];
+        }
+
+        long[] heap(int size) {
+            if (heap.length < size) {
+                heap = new long[size];
+            }
+            return heap;
+        }
+    }
+}
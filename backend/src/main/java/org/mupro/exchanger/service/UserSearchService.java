@@ -0,0 +1,103 @@
+package org.mupro.exchanger.service;
+
+import org.mupro.exchanger.dto.UserSearchHitDTO;
+import org.mupro.exchanger.event.UserChangedEvent;
+import org.mupro.exchanger.model.Job;
+import org.mupro.exchanger.model.User;
+import org.mupro.exchanger.repository.UserRepository;
+import org.mupro.exchanger.repository.UserSearchView;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Ranked user search over a {@link UserSearchIndex}. The index is filled once at startup and then follows
+ * committed {@link UserChangedEvent}s; replaced entries are tombstoned and swept out every
+ * {@code users.search.compaction-interval} once they exceed {@code users.search.max-tombstone-ratio}.
+ */
+@Service
+public class UserSearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserSearchService.class);
+
+    static final int MAX_LIMIT = 100;
+
+    private final UserSearchIndex index = new UserSearchIndex();
+    private final UserRepository userRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final double maxTombstoneRatio;
+
+    public UserSearchService(UserRepository userRepository, PlatformTransactionManager transactionManager,
+                             @Value("${users.search.max-tombstone-ratio:0.25}") double maxTombstoneRatio) {
+        this.userRepository = userRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.maxTombstoneRatio = maxTombstoneRatio;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<UserSearchView> users = userRepository.streamSearchViews()) {
+                users.forEach(user -> index.put(new UserSearchIndex.Entry(user.getId(), user.getName(),
+                        user.getQualification(), user.getHomeLocation(), user.getJobTitle(), user.getJobLocation())));
+            }
+        });
+        log.info("User search index loaded with {} users", index.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        User user = event.getUser();
+        if (user.getId() == null) {
+            return;
+        }
+        if (event.isDeleted()) {
+            index.remove(user.getId());
+        } else {
+            Job job = user.getJob();
+            index.put(new UserSearchIndex.Entry(user.getId(), user.getName(), user.getQualification(),
+                    user.getHomeLocation(), job != null ? job.getTitle() : null, job != null ? job.getLocation() : null));
+        }
+    }
+
+    /**
+     * Best matches for {@code query} across name, qualification, home location and job, at most
+     * {@value #MAX_LIMIT}. Scores run from 0 to 100.
+     */
+    public List<UserSearchHitDTO> search(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query must not be blank");
+        }
+        return index.search(query, Math.max(1, Math.min(limit, MAX_LIMIT))).stream()
+                .map(hit -> {
+                    UserSearchIndex.Entry entry = hit.entry();
+                    return new UserSearchHitDTO(String.valueOf(entry.userId()), entry.name(), entry.qualification(),
+                            entry.homeLocation(), entry.jobTitle(), entry.jobLocation(),
+                            (int) Math.round(hit.score() * 100));
+                })
+                .toList();
+    }
+
+    @Scheduled(fixedDelayString = "${users.search.compaction-interval:PT1M}",
+            initialDelayString = "${users.search.compaction-interval:PT1M}")
+    public void compactIfNeeded() {
+        int tombstones = index.tombstones();
+        if (tombstones > 0 && tombstones >= maxTombstoneRatio * (index.size() + tombstones)) {
+            long start = System.nanoTime();
+            index.compact();
+            log.debug("User search index compacted: {} tombstones dropped in {} ms",
+                    tombstones, (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+}
@@ -1,7 +1,13 @@
 package org.mupro.exchanger.service;
 
+import org.mupro.exchanger.dto.UserDetailDTO;
+import org.mupro.exchanger.dto.UserPageDTO;
+import org.mupro.exchanger.dto.UserSummaryDTO;
+import org.mupro.exchanger.event.UserChangedEvent;
 import org.mupro.exchanger.model.User;
 import org.mupro.exchanger.repository.UserRepository;
+import org.mupro.exchanger.repository.VersionStamp;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -11,32 +17,92 @@ import java.util.Optional;
 @Service
 public class UserService {
 
+    private static final int MAX_DIRECTORY_PAGE_SIZE = 200;
+
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                       ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.eventPublisher = eventPublisher;
     }
 
     public Optional<User> getUserByEmail(String email) {
         return userRepository.findByEmail(email);
     }
 
-    public List<User> getAllUsers(){ return userRepository.findAll(); }
+    public UserPageDTO getUserDirectory(String role, String homeLocation, String jobLocation,
+                                        String qualification, String cursor, int size) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_DIRECTORY_PAGE_SIZE);
+        long afterId = parseCursor(cursor);
+
+        // Fetch one extra row to know whether another page exists without a count query
+        List<UserSummaryDTO> users = userRepository.findDirectoryPage(
+                blankToNull(role), blankToNull(homeLocation), blankToNull(jobLocation), blankToNull(qualification),
+                afterId, pageSize + 1);
+        String nextCursor = null;
+        if (users.size() > pageSize) {
+            users = users.subList(0, pageSize);
+            nextCursor = users.get(pageSize - 1).getId();
+        }
+        return new UserPageDTO(users, nextCursor);
+    }
+
+    private static long parseCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            long afterId = Long.parseLong(cursor.trim());
+            if (afterId >= 0) {
+                return afterId;
+            }
+        } catch (NumberFormatException e) {
+            // fall through to the 400 below
+        }
+        throw new IllegalArgumentException("Invalid cursor: " + cursor);
+    }
 
     public User getUserById(Long id) {
         return userRepository.findById(id).orElseThrow();
     }
 
+    public UserDetailDTO getUserDetail(Long id) {
+        return userRepository.findDetailById(id).orElseThrow();
+    }
+
+    public Optional<UserDetailDTO> getUserDetailByEmail(String email) {
+        return userRepository.findDetailByEmail(email);
+    }
+
+    public String getUserETag(Long id) {
+        return VersionStamp.toETag("user", userRepository.findStampsById(id));
+    }
+
+    public String getUserETagByEmail(String email) {
+        return VersionStamp.toETag("user", userRepository.findStampsByEmail(email));
+    }
+
     public User saveUser(User user) {
         if (user.getPassword() != null) {
             user.setPassword(passwordEncoder.encode(user.getPassword()));
         }
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(saved, false));
+        return saved;
     }
 
     public void deleteUser(Long id) {
-        userRepository.deleteById(id);
+        userRepository.findById(id).ifPresent(user -> {
+            userRepository.delete(user);
+            eventPublisher.publishEvent(new UserChangedEvent(user, true));
+        });
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
     }
 }
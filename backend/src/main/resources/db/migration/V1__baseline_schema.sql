@@ -0,0 +1,28 @@
+-- Schema as previously generated by spring.jpa.hibernate.ddl-auto=update.
+-- IF NOT EXISTS lets this run as a no-op on databases that were created by Hibernate.
+
+CREATE TABLE IF NOT EXISTS job (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    description VARCHAR(255),
+    title       VARCHAR(255),
+    location    VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS "User" (
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name          VARCHAR(255),
+    email         VARCHAR(255) UNIQUE,
+    password      VARCHAR(255),
+    role          VARCHAR(255),
+    homeLocation  VARCHAR(255),
+    qualification VARCHAR(255),
+    job_id        BIGINT REFERENCES job (id)
+);
+
+CREATE TABLE IF NOT EXISTS SwapRequest (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    sender_id   BIGINT REFERENCES "User" (id),
+    receiver_id BIGINT REFERENCES "User" (id),
+    status      VARCHAR(255) CHECK (status IN ('PENDING', 'CONFIRMED_BY_USER2', 'APPROVED', 'REJECTED')),
+    createdAt   TIMESTAMP(6)
+);
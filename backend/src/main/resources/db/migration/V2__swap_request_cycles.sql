@@ -0,0 +1,3 @@
+-- Grouping of multi-party rotation legs
+ALTER TABLE SwapRequest ADD COLUMN IF NOT EXISTS cycleId VARCHAR(255);
+ALTER TABLE SwapRequest ADD COLUMN IF NOT EXISTS cycleLength INTEGER;
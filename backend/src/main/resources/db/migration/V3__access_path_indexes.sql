@@ -0,0 +1,13 @@
+-- Swap lists: received-and-pending, sent, and sender-or-receiver lookups
+CREATE INDEX IF NOT EXISTS idx_swaprequest_status_receiver ON SwapRequest (status, receiver_id);
+CREATE INDEX IF NOT EXISTS idx_swaprequest_sender ON SwapRequest (sender_id);
+CREATE INDEX IF NOT EXISTS idx_swaprequest_receiver ON SwapRequest (receiver_id);
+CREATE INDEX IF NOT EXISTS idx_swaprequest_cycle ON SwapRequest (cycleId);
+
+-- User directory keyset pagination: each filter column is paired with id so a page is a range scan
+CREATE INDEX IF NOT EXISTS idx_user_role_id ON "User" (role, id);
+CREATE INDEX IF NOT EXISTS idx_user_home_location_id ON "User" (homeLocation, id);
+CREATE INDEX IF NOT EXISTS idx_user_qualification_id ON "User" (qualification, id);
+CREATE INDEX IF NOT EXISTS idx_user_job_id ON "User" (job_id, id);
+
+CREATE INDEX IF NOT EXISTS idx_job_location ON job (location);
@@ -0,0 +1,3 @@
+-- Version columns for @Version optimistic locking on users and swap requests
+ALTER TABLE "User" ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE SwapRequest ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
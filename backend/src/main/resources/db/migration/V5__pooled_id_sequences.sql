@@ -0,0 +1,16 @@
+-- Ids now come from pooled sequences (allocationSize = 50 in the entities) so Hibernate can batch inserts.
+-- Hibernate hands out nextval - 49 .. nextval, so each sequence steps by 50 and starts one block past
+-- the current maximum id.
+
+CREATE SEQUENCE IF NOT EXISTS job_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS user_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS swaprequest_seq INCREMENT BY 50;
+
+SELECT setval('job_seq', COALESCE(MAX(id), 0) + 50, false) FROM job;
+SELECT setval('user_seq', COALESCE(MAX(id), 0) + 50, false) FROM "User";
+SELECT setval('swaprequest_seq', COALESCE(MAX(id), 0) + 50, false) FROM SwapRequest;
+
+-- Identity defaults would hand out ids inside blocks Hibernate has already reserved
+ALTER TABLE job ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE "User" ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE SwapRequest ALTER COLUMN id DROP IDENTITY IF EXISTS;
@@ -0,0 +1,2 @@
+-- Version column for Job, used for optimistic locking and for the ETags of the job and user endpoints
+ALTER TABLE job ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,25 @@
+-- Cold storage for finished swap requests, moved out of SwapRequest by SwapArchiveService.
+-- Range-partitioned by month of createdAt; the service creates each month's partition before moving rows
+-- into it. The default partition only catches rows for which that did not happen.
+-- No foreign keys: archived history outlives the users it mentions.
+
+CREATE TABLE IF NOT EXISTS swaprequest_history (
+    id          BIGINT       NOT NULL,
+    sender_id   BIGINT,
+    receiver_id BIGINT,
+    status      VARCHAR(255) NOT NULL,
+    createdAt   TIMESTAMP(6) NOT NULL,
+    cycleId     VARCHAR(255),
+    cycleLength INTEGER,
+    version     BIGINT       NOT NULL,
+    archivedAt  TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id, createdAt)
+) PARTITION BY RANGE (createdAt);
+
+CREATE TABLE IF NOT EXISTS swaprequest_history_default PARTITION OF swaprequest_history DEFAULT;
+
+CREATE INDEX IF NOT EXISTS idx_swaprequest_history_sender ON swaprequest_history (sender_id);
+CREATE INDEX IF NOT EXISTS idx_swaprequest_history_receiver ON swaprequest_history (receiver_id);
+
+-- Candidate scan of the archival job: terminal rows by age
+CREATE INDEX IF NOT EXISTS idx_swaprequest_status_created ON SwapRequest (status, createdAt);
@@ -0,0 +1,14 @@
+-- One row per issued refresh token. A token can be exchanged once; presenting it again revokes its whole
+-- family (every token descended from the same login). Expired rows are purged by RefreshTokenService.
+
+CREATE TABLE IF NOT EXISTS refresh_token (
+    jti       VARCHAR(36)  NOT NULL PRIMARY KEY,
+    family    VARCHAR(36)  NOT NULL,
+    email     VARCHAR(255) NOT NULL,
+    expiresAt TIMESTAMP(6) NOT NULL,
+    usedAt    TIMESTAMP(6),
+    revoked   BOOLEAN      NOT NULL DEFAULT FALSE
+);
+
+CREATE INDEX IF NOT EXISTS idx_refresh_token_family ON refresh_token (family);
+CREATE INDEX IF NOT EXISTS idx_refresh_token_expires ON refresh_token (expiresAt);
@@ -0,0 +1,119 @@
+package org.mupro.exchanger.benchmark;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mupro.exchanger.config.GatedDataSource;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Synthetic comparison of platform threads and virtual threads for a burst of blocking requests behind a gated
+ * connection pool. Each simulated request sleeps in place of a slow downstream call, then holds a connection
+ * for a {@code SELECT 1} on raw in-memory H2. There is no Tomcat, MVC, JPA or Hikari in the path, so the numbers
+ * isolate the execution model and say nothing about the application's own latency. The platform run uses
+ * Tomcat's default of 200 worker threads.
+ * <p>
+ * Reports p50/p99 latency and throughput for both. Run with {@code mvn test -Pbenchmark}. The virtual-thread
+ * half needs JDK 21 or later and is skipped on older runtimes. For numbers from the real application, run the
+ * load generator in {@code benchmarks/} on JDK 21, once as is and once with {@code -Dbench.profiles=virtual}.
+ */
+@Tag("benchmark")
+class RequestThreadingLoadTest {
+
+    private static final int REQUESTS = 5_000;
+    private static final int PLATFORM_THREADS = 200;
+    private static final int DB_PERMITS = 10;
+    private static final long DOWNSTREAM_MILLIS = 40;
+    private static final long QUERY_MILLIS = 2;
+
+    @Test
+    void compareExecutionModes() throws Exception {
+        GatedDataSource dataSource = gatedH2();
+        List<Result> results = new ArrayList<>();
+        results.add(run("platform", Executors.newFixedThreadPool(PLATFORM_THREADS), dataSource));
+        ExecutorService virtual = newVirtualThreadExecutor();
+        if (virtual != null) {
+            results.add(run("virtual", virtual, dataSource));
+        } else {
+            System.out.println("virtual    skipped: virtual threads need Java 21+");
+        }
+
+        System.out.printf("%-10s %10s %10s %12s%n", "mode", "p50 ms", "p99 ms", "requests/s");
+        for (Result result : results) {
+            System.out.printf("%-10s %10.1f %10.1f %12.0f%n",
+                    result.mode, result.p50Millis, result.p99Millis, result.throughput);
+        }
+        assertThat(dataSource.getAvailablePermits()).isEqualTo(DB_PERMITS);
+    }
+
+    private static Result run(String mode, ExecutorService executor, GatedDataSource dataSource) throws Exception {
+        long[] latencies = new long[REQUESTS];
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> futures = new ArrayList<>(REQUESTS);
+            for (int i = 0; i < REQUESTS; i++) {
+                int request = i;
+                long submitted = System.nanoTime();
+                futures.add(executor.submit(() -> {
+                    handle(dataSource);
+                    latencies[request] = System.nanoTime() - submitted;
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdown();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        Arrays.sort(latencies);
+        return new Result(mode, percentile(latencies, 0.50), percentile(latencies, 0.99), REQUESTS / seconds);
+    }
+
+    private static void handle(GatedDataSource dataSource) throws Exception {
+        Thread.sleep(DOWNSTREAM_MILLIS);
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT 1")) {
+            rows.next();
+            Thread.sleep(QUERY_MILLIS);
+        }
+    }
+
+    private static GatedDataSource gatedH2() {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:threading;DB_CLOSE_DELAY=-1");
+        return new GatedDataSource(h2, DB_PERMITS, Duration.ofMinutes(1));
+    }
+
+    // Looked up reflectively so the module still compiles for Java 17
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    private static double percentile(long[] sortedNanos, double percentile) {
+        int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(index, 0)] / 1e6;
+    }
+
+    private record Result(String mode, double p50Millis, double p99Millis, double throughput) {
+    }
+}
@@ -0,0 +1,50 @@
+package org.mupro.exchanger.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mupro.exchanger.service.SwapCycleSolver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Scaling run of the rotation solver over synthetic location graphs. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class SwapCycleSolverBenchmarkTest {
+
+    private static final int[] USER_COUNTS = {10_000, 25_000, 50_000, 100_000};
+    private static final int LOCATIONS = 30;
+
+    @Test
+    void scalesToOneHundredThousandUsers() {
+        SwapCycleSolver solver = new SwapCycleSolver(ForkJoinPool.commonPool(), 3, 5);
+        solver.solve(syntheticUsers(5_000, new Random(7))); // warm-up
+
+        System.out.printf("%10s %12s %12s%n", "users", "rotations", "millis");
+        long lastMillis = 0;
+        for (int users : USER_COUNTS) {
+            List<SwapCycleSolver.Participant> participants = syntheticUsers(users, new Random(users));
+            long start = System.nanoTime();
+            List<List<Long>> rotations = solver.solve(participants);
+            lastMillis = (System.nanoTime() - start) / 1_000_000;
+            System.out.printf("%10d %12d %12d%n", users, rotations.size(), lastMillis);
+        }
+        assertThat(lastMillis).isLessThan(10_000);
+    }
+
+    private static List<SwapCycleSolver.Participant> syntheticUsers(int count, Random random) {
+        List<SwapCycleSolver.Participant> participants = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            // Skewed towards a few large districts, like real postings
+            String job = "district-" + (int) (LOCATIONS * Math.pow(random.nextDouble(), 2));
+            String home = "district-" + random.nextInt(LOCATIONS);
+            participants.add(new SwapCycleSolver.Participant(id, job, home));
+        }
+        return participants;
+    }
+}
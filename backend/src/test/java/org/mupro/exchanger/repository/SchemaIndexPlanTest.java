@@ -0,0 +1,131 @@
+package org.mupro.exchanger.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Migrates a scratch schema on a locally running PostgreSQL, seeds it at production-like volumes, analyzes it,
+ * and checks that, with default planner settings, the access paths the repositories use are planned on the
+ * indexes from the migrations. Seeding takes minutes, so it only runs with {@code mvn test -Pdb-plan} and
+ * only against a database named explicitly in PLAN_TEST_DB_URL, never the application's own by default.
+ * PLAN_TEST_DB_USER and PLAN_TEST_DB_PASSWORD default to the values in application.properties.
+ */
+@Tag("db-plan")
+class SchemaIndexPlanTest {
+
+    private static final String URL = System.getenv("PLAN_TEST_DB_URL");
+    private static final String USER = env("PLAN_TEST_DB_USER", "postgres");
+    private static final String PASSWORD = env("PLAN_TEST_DB_PASSWORD", "mupro");
+    private static final String SCHEMA = "plan_test_" + System.currentTimeMillis();
+
+    // Production-like volumes: the planner only prefers an index once a sequential scan is clearly dearer
+    private static final int JOBS = 20_000;
+    private static final int USERS = 200_000;
+    private static final int SWAPS = 1_000_000;
+
+    private static Connection connection;
+
+    @BeforeAll
+    static void migrateAndSeed() throws SQLException {
+        assumeTrue(URL != null && !URL.isBlank(), "Set PLAN_TEST_DB_URL to a scratch PostgreSQL database");
+        try {
+            connection = DriverManager.getConnection(URL, USER, PASSWORD);
+        } catch (SQLException e) {
+            assumeTrue(false, "No local PostgreSQL at " + URL);
+        }
+
+        Flyway.configure()
+                .dataSource(URL, USER, PASSWORD)
+                .schemas(SCHEMA)
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET search_path TO " + SCHEMA);
+            statement.execute("SELECT setseed(0.42)");
+            statement.execute("INSERT INTO job (id, title, location, description) " +
+                    "SELECT i, 'Job ' || i, 'location-' || (i % 500), '' FROM generate_series(1, " + JOBS + ") i");
+            statement.execute("INSERT INTO \"User\" (id, name, email, role, homeLocation, qualification, job_id) " +
+                    "SELECT i, 'User ' || i, 'user' || i || '@gov.rw', " +
+                    "CASE WHEN i % 1000 = 0 THEN 'ADMIN' ELSE 'NORMALUSER' END, " +
+                    "'location-' || floor(random() * 500)::int, 'qualification-' || floor(random() * 40)::int, " +
+                    "1 + (i % " + JOBS + ") FROM generate_series(1, " + USERS + ") i");
+            // Mostly finished requests spread over a year, with a small open tail, as in production
+            statement.execute("INSERT INTO SwapRequest (id, sender_id, receiver_id, status, createdAt) " +
+                    "SELECT i, 1 + floor(random() * " + USERS + ")::int, 1 + floor(random() * " + USERS + ")::int, " +
+                    "CASE WHEN r < 0.45 THEN 'APPROVED' WHEN r < 0.85 THEN 'REJECTED' " +
+                    "WHEN r < 0.95 THEN 'PENDING' ELSE 'CONFIRMED_BY_USER2' END, " +
+                    "now() - (i % 365) * interval '1 day' " +
+                    "FROM (SELECT i, random() AS r FROM generate_series(1, " + SWAPS + ") i) seed");
+            statement.execute("ANALYZE");
+        }
+    }
+
+    @AfterAll
+    static void dropSchema() throws SQLException {
+        if (connection != null) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+            }
+            connection.close();
+        }
+    }
+
+    @Test
+    void receivedPendingSwapsUseStatusReceiverIndex() throws SQLException {
+        assertThat(plan("SELECT * FROM SwapRequest WHERE status = 'PENDING' AND receiver_id = 42"))
+                .contains("idx_swaprequest_status_receiver");
+    }
+
+    @Test
+    void sentSwapsUseSenderIndex() throws SQLException {
+        assertThat(plan("SELECT * FROM SwapRequest WHERE sender_id = 42")).contains("idx_swaprequest_sender");
+    }
+
+    @Test
+    void participantSwapsUseSenderAndReceiverIndexes() throws SQLException {
+        assertThat(plan("SELECT * FROM SwapRequest WHERE sender_id = 42 OR receiver_id = 42"))
+                .contains("idx_swaprequest_sender")
+                .containsAnyOf("idx_swaprequest_receiver", "idx_swaprequest_status_receiver");
+    }
+
+    @Test
+    void directoryPageByRoleUsesRoleIndex() throws SQLException {
+        assertThat(plan("SELECT * FROM \"User\" WHERE role = 'ADMIN' AND id > 0 ORDER BY id LIMIT 51"))
+                .contains("idx_user_role_id");
+    }
+
+    @Test
+    void jobsByLocationUseLocationIndex() throws SQLException {
+        assertThat(plan("SELECT * FROM job WHERE location = 'location-7'")).contains("idx_job_location");
+    }
+
+    private static String plan(String sql) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("EXPLAIN " + sql)) {
+            while (rows.next()) {
+                plan.append(rows.getString(1)).append('\n');
+            }
+        }
+        return plan.toString();
+    }
+
+    private static String env(String name, String fallback) {
+        String value = System.getenv(name);
+        return value != null ? value : fallback;
+    }
+}
@@ -0,0 +1,33 @@
+package org.mupro.exchanger.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VersionStampTest {
+
+    @Test
+    void sameRowsGiveTheSameETag() {
+        assertThat(VersionStamp.toETag("swaps", List.of(new VersionStamp(1L, 0L, 2L, 3L))))
+                .isEqualTo(VersionStamp.toETag("swaps", List.of(new VersionStamp(1L, 0L, 2L, 3L))));
+    }
+
+    @Test
+    void changesThatKeepCountMaxIdAndVersionSumStillChangeTheETag() {
+        // Same count, highest id and version sum, but a different row was updated
+        String before = VersionStamp.toETag("swaps", List.of(new VersionStamp(1L, 1L), new VersionStamp(2L, 0L)));
+        String after = VersionStamp.toETag("swaps", List.of(new VersionStamp(1L, 0L), new VersionStamp(2L, 1L)));
+        assertThat(after).isNotEqualTo(before);
+
+        // A user moving to an older job: own version up, embedded job version down
+        assertThat(VersionStamp.toETag("user", List.of(new VersionStamp(7L, 3L, 5L))))
+                .isNotEqualTo(VersionStamp.toETag("user", List.of(new VersionStamp(7L, 4L, 4L))));
+    }
+
+    @Test
+    void emptyListHasAnETag() {
+        assertThat(VersionStamp.toETag("sent", List.of())).startsWith("\"sent-0-").endsWith("\"");
+    }
+}
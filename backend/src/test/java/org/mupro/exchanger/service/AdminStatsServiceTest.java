@@ -0,0 +1,88 @@
+package org.mupro.exchanger.service;
+
+import org.junit.jupiter.api.Test;
+import org.mupro.exchanger.dto.AdminStatsDTO;
+import org.mupro.exchanger.model.Job;
+import org.mupro.exchanger.model.SwapRequest;
+import org.mupro.exchanger.model.User;
+import org.mupro.exchanger.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class AdminStatsServiceTest {
+
+    @Autowired
+    private AdminStatsService adminStatsService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JobService jobService;
+
+    @Autowired
+    private SwapRequestService swapRequestService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void countersFollowEventsAndAgreeWithReconciliation() {
+        // Other tests in this context write through repositories without events; start from the database
+        adminStatsService.reconcile();
+        AdminStatsDTO before = adminStatsService.getStats();
+
+        Job job = jobService.saveJob(new Job("", "Stats clerk", "Stats-Rubavu"));
+        User sender = userService.saveUser(new User("Stats Sender", "stats-sender@gov.rw", "pw", "NORMALUSER",
+                "Kigali", "BSc", job));
+        User receiver = userService.saveUser(new User("Stats Receiver", "stats-receiver@gov.rw", "pw", "NORMALUSER"));
+        User leaver = userService.saveUser(new User("Stats Leaver", "stats-leaver@gov.rw", "pw", "ADMIN"));
+        SwapRequest swap = swapRequestService.sendSwapRequest(sender, receiver);
+        swapRequestService.confirmRequest(swap.getId());
+        userService.deleteUser(leaver.getId());
+
+        AdminStatsDTO after = adminStatsService.getStats();
+        assertThat(after.getTotalUsers()).isEqualTo(before.getTotalUsers() + 2);
+        assertThat(delta(before.getUsersByRole(), after.getUsersByRole(), "NORMALUSER")).isEqualTo(2);
+        assertThat(delta(before.getUsersByRole(), after.getUsersByRole(), "ADMIN")).isZero();
+        assertThat(after.getUsersByJobLocation()).containsEntry("Stats-Rubavu", 1L);
+        assertThat(delta(before.getSwapsByStatus(), after.getSwapsByStatus(), "PENDING")).isZero();
+        assertThat(delta(before.getSwapsByStatus(), after.getSwapsByStatus(), "CONFIRMED_BY_USER2")).isEqualTo(1);
+        String today = LocalDate.now().toString();
+        assertThat(delta(before.getSwapsCreatedByDay(), after.getSwapsCreatedByDay(), today)).isEqualTo(1);
+
+        adminStatsService.reconcile();
+        AdminStatsDTO reconciled = adminStatsService.getStats();
+        assertThat(reconciled.getUsersByRole()).isEqualTo(after.getUsersByRole());
+        assertThat(reconciled.getSwapsByStatus()).isEqualTo(after.getSwapsByStatus());
+        assertThat(reconciled.getSwapsCreatedByDay()).isEqualTo(after.getSwapsCreatedByDay());
+    }
+
+    @Test
+    void reconcileRebuildsTheBucketsEventsMoveUsersOutOf() {
+        // Written without an event, so only reconciliation knows which bucket this user is in
+        User user = userRepository.save(new User("Stats Silent", "stats-silent@gov.rw", "pw", "NORMALUSER"));
+        adminStatsService.reconcile();
+        AdminStatsDTO before = adminStatsService.getStats();
+
+        user.setRole("ADMIN");
+        userService.saveUser(user);
+
+        AdminStatsDTO after = adminStatsService.getStats();
+        assertThat(after.getTotalUsers()).isEqualTo(before.getTotalUsers());
+        assertThat(delta(before.getUsersByRole(), after.getUsersByRole(), "NORMALUSER")).isEqualTo(-1);
+        assertThat(delta(before.getUsersByRole(), after.getUsersByRole(), "ADMIN")).isEqualTo(1);
+    }
+
+    private static long delta(Map<String, Long> before, Map<String, Long> after, String key) {
+        return after.getOrDefault(key, 0L) - before.getOrDefault(key, 0L);
+    }
+}
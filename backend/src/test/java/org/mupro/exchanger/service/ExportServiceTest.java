@@ -0,0 +1,82 @@
+package org.mupro.exchanger.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.mupro.exchanger.model.Job;
+import org.mupro.exchanger.model.User;
+import org.mupro.exchanger.repository.JobRepository;
+import org.mupro.exchanger.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class ExportServiceTest {
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JobRepository jobRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void csvQuotesFieldsThatNeedIt() {
+        Job job = jobRepository.save(new Job("Teaches \"maths\", grades 4-6", "Teacher", "Huye"));
+        User user = userRepository.save(new User("Uwase, Alice", "export-csv@gov.rw", null,
+                "NORMALUSER", "Kigali", "BSc", job));
+
+        List<String> lines = export(DataFormat.CSV).lines().toList();
+
+        assertThat(lines.get(0)).isEqualTo(
+                "id,name,email,role,homeLocation,qualification,jobId,jobTitle,jobLocation,jobDescription");
+        assertThat(lines).contains(user.getId() + ",\"Uwase, Alice\",export-csv@gov.rw,NORMALUSER,Kigali,BSc,"
+                + job.getId() + ",Teacher,Huye,\"Teaches \"\"maths\"\", grades 4-6\"");
+    }
+
+    @Test
+    void csvNeutralisesSpreadsheetFormulas() {
+        User user = userRepository.save(new User("=HYPERLINK(\"http://x\",\"y\")", "export-formula@gov.rw", null,
+                "NORMALUSER", "@SUM(A1)", "-2+3", null));
+
+        List<String> lines = export(DataFormat.CSV).lines().toList();
+
+        assertThat(lines).contains(user.getId() + ",\"'=HYPERLINK(\"\"http://x\"\",\"\"y\"\")\","
+                + "export-formula@gov.rw,NORMALUSER,'@SUM(A1),'-2+3,,,,");
+    }
+
+    @Test
+    void ndjsonWritesOneObjectPerLine() throws Exception {
+        User user = userRepository.save(new User("Ndjson User", "export-ndjson@gov.rw", null, "NORMALUSER"));
+
+        String body = export(DataFormat.NDJSON);
+
+        assertThat(body).endsWith("\n");
+        boolean found = false;
+        for (String line : body.split("\n")) {
+            JsonNode row = objectMapper.readTree(line);
+            assertThat(row.has("password")).isFalse();
+            found |= row.get("id").asText().equals(user.getId().toString());
+        }
+        assertThat(found).isTrue();
+    }
+
+    private String export(DataFormat format) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.exportUsers(format, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,39 @@
+package org.mupro.exchanger.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.mupro.exchanger.model.Job;
+import org.mupro.exchanger.repository.JobRepository;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class JobServiceTest {
+
+    @Test
+    void anOlderSaveArrivingLateDoesNotReplaceANewerOne() {
+        JobRepository jobRepository = mock(JobRepository.class);
+        when(jobRepository.findAll()).thenReturn(List.of(job(1L, "Teacher", 0L)));
+        // Both saves committed, but the one that committed first reaches the catalog last
+        when(jobRepository.save(any(Job.class))).thenReturn(job(1L, "Head teacher", 2L), job(1L, "Senior teacher", 1L));
+        JobService jobService = new JobService(jobRepository, new ObjectMapper());
+        jobService.loadCatalog();
+
+        jobService.saveJob(job(1L, "Head teacher", 1L));
+        jobService.saveJob(job(1L, "Senior teacher", 0L));
+
+        assertThat(jobService.getJobById(1L).getTitle()).isEqualTo("Head teacher");
+        assertThat(jobService.getJobById(1L).getVersion()).isEqualTo(2L);
+        assertThat(jobService.getAllJobs()).hasSize(1);
+    }
+
+    private static Job job(Long id, String title, Long version) {
+        Job job = new Job(id, "", title, "Kigali");
+        job.setVersion(version);
+        return job;
+    }
+}
@@ -0,0 +1,61 @@
+package org.mupro.exchanger.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoginThrottleTest {
+
+    private final LoginThrottle throttle = new LoginThrottle(3, Duration.ofSeconds(30), Duration.ofMinutes(15));
+
+    @Test
+    void locksOutAfterRepeatedFailures() {
+        throttle.recordFailure("a@gov.rw");
+        throttle.recordFailure("a@gov.rw");
+        assertThat(throttle.retryAfterSeconds("a@gov.rw")).isZero();
+
+        throttle.recordFailure("A@gov.rw ");
+        assertThat(throttle.retryAfterSeconds("a@gov.rw")).isBetween(1L, 30L);
+        assertThat(throttle.retryAfterSeconds("b@gov.rw")).isZero();
+    }
+
+    @Test
+    void lockoutDoublesAndIsCapped() {
+        for (int i = 0; i < 4; i++) {
+            throttle.recordFailure("a@gov.rw");
+        }
+        assertThat(throttle.retryAfterSeconds("a@gov.rw")).isBetween(31L, 60L);
+
+        for (int i = 0; i < 30; i++) {
+            throttle.recordFailure("a@gov.rw");
+        }
+        assertThat(throttle.retryAfterSeconds("a@gov.rw")).isBetween(1L, 900L);
+    }
+
+    @Test
+    void successClearsFailures() {
+        for (int i = 0; i < 3; i++) {
+            throttle.recordFailure("a@gov.rw");
+        }
+        throttle.recordSuccess("a@gov.rw");
+        assertThat(throttle.retryAfterSeconds("a@gov.rw")).isZero();
+    }
+
+    @Test
+    void attemptsInFlightCountAgainstTheLockout() {
+        for (int i = 0; i < 3; i++) {
+            assertThat(throttle.tryAcquire("a@gov.rw")).isZero();
+        }
+        assertThat(throttle.tryAcquire("a@gov.rw")).isPositive();
+
+        throttle.release("a@gov.rw");
+        assertThat(throttle.tryAcquire("a@gov.rw")).isZero();
+
+        for (int i = 0; i < 3; i++) {
+            throttle.recordFailure("a@gov.rw");
+        }
+        assertThat(throttle.tryAcquire("a@gov.rw")).isBetween(1L, 30L);
+    }
+}
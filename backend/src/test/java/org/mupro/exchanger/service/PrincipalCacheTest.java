@@ -0,0 +1,26 @@
+package org.mupro.exchanger.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mupro.exchanger.event.UserChangedEvent;
+import org.mupro.exchanger.model.User;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PrincipalCacheTest {
+
+    @Test
+    void emailChangeEvictsTheOldAddress() {
+        PrincipalCache cache = new PrincipalCache(100, Duration.ofMinutes(5), new SimpleMeterRegistry());
+        User user = new User(7L, "Grace", "old@gov.rw", null, "NORMALUSER", "Huye", "BSc", null);
+        cache.get("old@gov.rw", email -> user);
+
+        User renamed = new User(7L, "Grace", "new@gov.rw", null, "NORMALUSER", "Huye", "BSc", null);
+        cache.onUserChanged(new UserChangedEvent(renamed, false));
+
+        assertThat(cache.size()).isZero();
+        assertThat(cache.get("old@gov.rw", email -> renamed)).isSameAs(renamed);
+    }
+}
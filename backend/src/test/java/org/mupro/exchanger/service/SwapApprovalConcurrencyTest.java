@@ -0,0 +1,177 @@
+package org.mupro.exchanger.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mupro.exchanger.dto.BulkSwapResultDTO;
+import org.mupro.exchanger.exception.SwapConflictException;
+import org.mupro.exchanger.model.Job;
+import org.mupro.exchanger.model.SwapRequest;
+import org.mupro.exchanger.model.SwapStatus;
+import org.mupro.exchanger.model.User;
+import org.mupro.exchanger.repository.JobRepository;
+import org.mupro.exchanger.repository.SwapRequestRepository;
+import org.mupro.exchanger.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class SwapApprovalConcurrencyTest {
+
+    private static final int THREADS = 16;
+
+    @Autowired
+    private SwapRequestService swapRequestService;
+
+    @Autowired
+    private SwapRequestRepository swapRequestRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JobRepository jobRepository;
+
+    @Test
+    void overlappingApprovalsNeverAssignAJobTwice() throws Exception {
+        List<User> users = createUsers("chain", 60);
+        // Every user except the ends appears in two swaps, so concurrent approvals collide constantly
+        List<Long> swapIds = new ArrayList<>();
+        for (int i = 0; i + 1 < users.size(); i++) {
+            swapIds.add(confirmedSwap(users.get(i), users.get(i + 1)));
+        }
+
+        AtomicInteger conflicts = new AtomicInteger();
+        runConcurrently(swapIds, conflicts);
+
+        List<Long> userIds = users.stream().map(User::getId).toList();
+        List<Long> assignedJobs = userRepository.findAllById(userIds).stream()
+                .map(user -> user.getJob().getId())
+                .toList();
+        Set<Long> originalJobs = users.stream().map(user -> user.getJob().getId()).collect(Collectors.toSet());
+        assertThat(assignedJobs).doesNotHaveDuplicates();
+        assertThat(Set.copyOf(assignedJobs)).isEqualTo(originalJobs);
+
+        long approved = swapRequestRepository.findAllById(swapIds).stream()
+                .filter(swap -> swap.getStatus() == SwapStatus.APPROVED)
+                .count();
+        assertThat(approved + conflicts.get()).isEqualTo(swapIds.size());
+    }
+
+    @Test
+    void disjointApprovalsNeverConflict() throws Exception {
+        List<Long> swapIds = disjointSwaps("disjoint", 50);
+
+        AtomicInteger conflicts = new AtomicInteger();
+        runConcurrently(swapIds, conflicts);
+
+        assertThat(conflicts.get()).isZero();
+        assertThat(swapRequestRepository.findAllById(swapIds))
+                .extracting(SwapRequest::getStatus)
+                .containsOnly(SwapStatus.APPROVED);
+    }
+
+    // Wall-clock comparison: only meaningful on an otherwise idle machine, so it runs with -Pbenchmark
+    @Test
+    @Tag("benchmark")
+    void disjointApprovalsScaleWithoutAGlobalLock() throws Exception {
+        List<Long> sequential = disjointSwaps("seq", 200);
+        List<Long> parallel = disjointSwaps("par", 200);
+
+        long start = System.nanoTime();
+        sequential.forEach(swapRequestService::approveRequest);
+        double sequentialPerSecond = sequential.size() / seconds(start);
+
+        AtomicInteger conflicts = new AtomicInteger();
+        start = System.nanoTime();
+        runConcurrently(parallel, conflicts);
+        double parallelPerSecond = parallel.size() / seconds(start);
+
+        System.out.printf("approvals/s sequential=%.0f parallel(%d threads)=%.0f%n",
+                sequentialPerSecond, THREADS, parallelPerSecond);
+        assertThat(conflicts.get()).isZero();
+        assertThat(parallelPerSecond).isGreaterThan(sequentialPerSecond * 0.5);
+    }
+
+    @Test
+    void bulkApprovalMovesEachUserAtMostOnce() {
+        List<User> users = createUsers("bulk", 6);
+        Long first = confirmedSwap(users.get(0), users.get(1));
+        Long overlapping = confirmedSwap(users.get(1), users.get(2));
+        Long disjoint = confirmedSwap(users.get(3), users.get(4));
+        Long pending = swapRequestRepository.save(
+                new SwapRequest(users.get(5), users.get(0), SwapStatus.PENDING)).getId();
+
+        List<BulkSwapResultDTO> results = swapRequestService.applyBulk("approve",
+                List.of(first, overlapping, disjoint, pending, -1L, first));
+
+        assertThat(results).extracting(BulkSwapResultDTO::getOutcome).containsExactly(
+                BulkSwapResultDTO.APPROVED, BulkSwapResultDTO.CONFLICT, BulkSwapResultDTO.APPROVED,
+                BulkSwapResultDTO.INVALID_STATUS, BulkSwapResultDTO.NOT_FOUND, BulkSwapResultDTO.SKIPPED);
+        assertThat(swapRequestRepository.findById(overlapping).orElseThrow().getStatus())
+                .isEqualTo(SwapStatus.CONFIRMED_BY_USER2);
+        assertThat(userRepository.findById(users.get(0).getId()).orElseThrow().getJob().getId())
+                .isEqualTo(users.get(1).getJob().getId());
+    }
+
+    private void runConcurrently(List<Long> swapIds, AtomicInteger conflicts) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (Long swapId : swapIds) {
+                futures.add(executor.submit(() -> {
+                    try {
+                        swapRequestService.approveRequest(swapId);
+                    } catch (SwapConflictException e) {
+                        conflicts.incrementAndGet();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private List<Long> disjointSwaps(String prefix, int count) {
+        List<User> users = createUsers(prefix, count * 2);
+        List<Long> swapIds = new ArrayList<>();
+        for (int i = 0; i < users.size(); i += 2) {
+            swapIds.add(confirmedSwap(users.get(i), users.get(i + 1)));
+        }
+        return swapIds;
+    }
+
+    private List<User> createUsers(String prefix, int count) {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Job job = jobRepository.save(new Job("", prefix + " job " + i, "location-" + i));
+            users.add(userRepository.save(new User(prefix + " " + i, prefix + i + "@gov.rw", null,
+                    "NORMALUSER", "home-" + i, "BSc", job)));
+        }
+        return users;
+    }
+
+    private Long confirmedSwap(User sender, User receiver) {
+        return swapRequestRepository.save(new SwapRequest(sender, receiver, SwapStatus.CONFIRMED_BY_USER2)).getId();
+    }
+
+    private static double seconds(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1e9;
+    }
+}
@@ -0,0 +1,92 @@
+package org.mupro.exchanger.service;
+
+import org.junit.jupiter.api.Test;
+import org.mupro.exchanger.dto.SwapRequestDTO;
+import org.mupro.exchanger.model.SwapRequest;
+import org.mupro.exchanger.model.SwapStatus;
+import org.mupro.exchanger.model.User;
+import org.mupro.exchanger.repository.SwapRequestHistoryRepository;
+import org.mupro.exchanger.repository.SwapRequestRepository;
+import org.mupro.exchanger.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "swap.archive.batch-size=2")
+@ActiveProfiles("h2")
+class SwapArchiveServiceTest {
+
+    @Autowired
+    private SwapArchiveService swapArchiveService;
+
+    @Autowired
+    private SwapRequestService swapRequestService;
+
+    @Autowired
+    private SwapRequestRepository swapRequestRepository;
+
+    @Autowired
+    private SwapRequestHistoryRepository historyRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void movesOnlyOldFinishedRequestsAndKeepsTheMergedHistory() {
+        User alice = userRepository.save(new User("Archive Alice", "archive-alice@gov.rw", null, "NORMALUSER"));
+        User bob = userRepository.save(new User("Archive Bob", "archive-bob@gov.rw", null, "NORMALUSER"));
+        LocalDateTime old = LocalDateTime.now().minusDays(200);
+        Long oldApproved = swap(alice, bob, SwapStatus.APPROVED, old);
+        Long oldRejected = swap(bob, alice, SwapStatus.REJECTED, old);
+        Long oldRejectedToo = swap(alice, bob, SwapStatus.REJECTED, old);
+        Long oldPending = swap(alice, bob, SwapStatus.PENDING, old);
+        Long recentApproved = swap(bob, alice, SwapStatus.APPROVED, LocalDateTime.now());
+
+        // Three candidates with a batch size of two: the run has to loop
+        long moved = swapArchiveService.archive(LocalDateTime.now().minusDays(90));
+
+        assertThat(moved).isEqualTo(3);
+        assertThat(swapRequestRepository.findAllById(List.of(oldApproved, oldRejected, oldRejectedToo)))
+                .isEmpty();
+        assertThat(historyRepository.findAllById(List.of(oldApproved, oldRejected, oldRejectedToo)))
+                .hasSize(3);
+        assertThat(swapRequestService.getUserSwapRequests(alice.getId()))
+                .extracting(SwapRequestDTO::getId)
+                .containsExactly(oldApproved.toString(), oldRejected.toString(), oldRejectedToo.toString(),
+                        oldPending.toString(), recentApproved.toString());
+        assertThat(swapRequestService.getRequestsBySender(bob.getId()))
+                .extracting(SwapRequestDTO::getRequesterName)
+                .containsExactly("Archive Bob", "Archive Bob");
+    }
+
+    @Test
+    void historyETagsCoverArchivedRows() {
+        User carol = userRepository.save(new User("Archive Carol", "archive-carol@gov.rw", null, "NORMALUSER"));
+        User dan = userRepository.save(new User("Archive Dan", "archive-dan@gov.rw", null, "NORMALUSER"));
+        swap(carol, dan, SwapStatus.APPROVED, LocalDateTime.now().minusDays(200));
+        String beforeArchiving = swapRequestService.getSentETag(carol.getId());
+
+        swapArchiveService.archive(LocalDateTime.now().minusDays(90));
+
+        // Same rows, same payload: archiving alone does not invalidate cached lists
+        assertThat(swapRequestService.getSentETag(carol.getId())).isEqualTo(beforeArchiving);
+        String archived = swapRequestService.getUserSwapsETag(dan.getId());
+
+        carol.setName("Archive Caroline");
+        userRepository.save(carol);
+
+        assertThat(swapRequestService.getSentETag(carol.getId())).isNotEqualTo(beforeArchiving);
+        assertThat(swapRequestService.getUserSwapsETag(dan.getId())).isNotEqualTo(archived);
+    }
+
+    private Long swap(User sender, User receiver, SwapStatus status, LocalDateTime createdAt) {
+        SwapRequest request = new SwapRequest(sender, receiver, status);
+        request.setCreatedAt(createdAt);
+        return swapRequestRepository.save(request).getId();
+    }
+}
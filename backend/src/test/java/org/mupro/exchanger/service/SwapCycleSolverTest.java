@@ -0,0 +1,59 @@
+package org.mupro.exchanger.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SwapCycleSolverTest {
+
+    @Test
+    void findsThreeWayRotation() {
+        // 1 works in A and lives in B, 2 works in B and lives in C, 3 works in C and lives in A
+        List<SwapCycleSolver.Participant> participants = List.of(
+                new SwapCycleSolver.Participant(1L, "A", "B"),
+                new SwapCycleSolver.Participant(2L, "B", "C"),
+                new SwapCycleSolver.Participant(3L, "C", "A"),
+                new SwapCycleSolver.Participant(4L, "C", "D"));
+
+        List<List<Long>> rotations = new SwapCycleSolver(ForkJoinPool.commonPool(), 3, 4).solve(participants);
+
+        assertThat(rotations).containsExactly(List.of(1L, 2L, 3L));
+    }
+
+    @Test
+    void respectsLengthBounds() {
+        List<SwapCycleSolver.Participant> participants = List.of(
+                new SwapCycleSolver.Participant(1L, "A", "B"),
+                new SwapCycleSolver.Participant(2L, "B", "A"),
+                new SwapCycleSolver.Participant(3L, "A", "C"),
+                new SwapCycleSolver.Participant(4L, "C", "D"),
+                new SwapCycleSolver.Participant(5L, "D", "E"),
+                new SwapCycleSolver.Participant(6L, "E", "A"));
+
+        assertThat(new SwapCycleSolver(ForkJoinPool.commonPool(), 3, 3).solve(participants)).isEmpty();
+        assertThat(new SwapCycleSolver(ForkJoinPool.commonPool(), 2, 4).solve(participants))
+                .containsExactly(List.of(1L, 2L), List.of(3L, 4L, 5L, 6L));
+    }
+
+    @Test
+    void neverPlacesAUserInTwoRotations() {
+        List<SwapCycleSolver.Participant> participants = List.of(
+                new SwapCycleSolver.Participant(1L, "A", "B"),
+                new SwapCycleSolver.Participant(2L, "B", "C"),
+                new SwapCycleSolver.Participant(3L, "C", "A"),
+                new SwapCycleSolver.Participant(4L, "B", "D"),
+                new SwapCycleSolver.Participant(5L, "D", "A"),
+                new SwapCycleSolver.Participant(6L, "A", "B"));
+
+        List<List<Long>> rotations = new SwapCycleSolver(ForkJoinPool.commonPool(), 3, 4).solve(participants);
+
+        Set<Long> seen = new HashSet<>();
+        rotations.forEach(rotation -> rotation.forEach(userId -> assertThat(seen.add(userId)).isTrue()));
+        assertThat(rotations).hasSize(2);
+    }
+}
@@ -0,0 +1,117 @@
+package org.mupro.exchanger.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mupro.exchanger.event.SwapStatusChangedEvent;
+import org.mupro.exchanger.model.SwapRequest;
+import org.mupro.exchanger.model.SwapStatus;
+import org.mupro.exchanger.model.User;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SwapEventBroadcasterTest {
+
+    private static final int QUEUE_SIZE = 4;
+
+    private final SwapEventBroadcaster broadcaster = new SwapEventBroadcaster(Duration.ofMinutes(30),
+            Duration.ofHours(1), Duration.ofMillis(50), QUEUE_SIZE, 2);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        broadcaster.shutdown();
+    }
+
+    @Test
+    void stalledSubscriberDoesNotDelayOthers() throws Exception {
+        RecordingEmitter stalled = new RecordingEmitter(release);
+        RecordingEmitter healthy = new RecordingEmitter(null);
+        broadcaster.subscribeUser(1L, stalled);
+        broadcaster.subscribeUser(2L, healthy);
+
+        for (long id = 1; id <= 3; id++) {
+            broadcaster.onSwapStatusChanged(event(id, 1L, 2L));
+        }
+
+        // connected comment plus three swap events
+        assertThat(healthy.awaitSends(4)).isTrue();
+        assertThat(stalled.sends.get()).isLessThanOrEqualTo(1);
+    }
+
+    @Test
+    void overflowingSubscriberIsDropped() throws Exception {
+        RecordingEmitter stalled = new RecordingEmitter(release);
+        broadcaster.subscribeUser(1L, stalled);
+
+        for (long id = 1; id <= QUEUE_SIZE + 2; id++) {
+            broadcaster.onSwapStatusChanged(event(id, 1L, 3L));
+        }
+
+        assertThat(broadcaster.subscriberCount()).isZero();
+    }
+
+    @Test
+    void heartbeatDetachesSubscriberStuckInAWrite() throws Exception {
+        RecordingEmitter stalled = new RecordingEmitter(release);
+        broadcaster.subscribeAdmin(stalled);
+        assertThat(stalled.awaitSendStarted()).isTrue();
+
+        Thread.sleep(100);
+        broadcaster.heartbeat();
+
+        assertThat(broadcaster.subscriberCount()).isZero();
+    }
+
+    private static SwapStatusChangedEvent event(Long swapId, Long senderId, Long receiverId) {
+        User sender = new User(senderId, "Sender", "s" + senderId + "@gov.rw", null, "NORMALUSER", "Huye", "BSc", null);
+        User receiver = new User(receiverId, "Receiver", "r" + receiverId + "@gov.rw", null, "NORMALUSER", "Huye", "BSc", null);
+        return new SwapStatusChangedEvent(new SwapRequest(swapId, sender, receiver, SwapStatus.PENDING), null);
+    }
+
+    /**
+     * Counts sends; when given a latch, every send blocks on it like a write to a client that stopped reading.
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+        private final CountDownLatch block;
+        private final AtomicInteger sends = new AtomicInteger();
+        private final CountDownLatch sendStarted = new CountDownLatch(1);
+
+        RecordingEmitter(CountDownLatch block) {
+            this.block = block;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sendStarted.countDown();
+            if (block != null) {
+                try {
+                    block.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+            }
+            sends.incrementAndGet();
+        }
+
+        boolean awaitSendStarted() throws InterruptedException {
+            return sendStarted.await(5, TimeUnit.SECONDS);
+        }
+
+        boolean awaitSends(int expected) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (sends.get() < expected && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            return sends.get() >= expected;
+        }
+    }
+}
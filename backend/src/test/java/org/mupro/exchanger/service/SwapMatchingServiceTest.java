@@ -0,0 +1,58 @@
+package org.mupro.exchanger.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mupro.exchanger.dto.SwapCandidateDTO;
+import org.mupro.exchanger.event.UserChangedEvent;
+import org.mupro.exchanger.model.Job;
+import org.mupro.exchanger.model.User;
+import org.mupro.exchanger.repository.UserRepository;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class SwapMatchingServiceTest {
+
+    private SwapMatchingService matchingService;
+
+    @BeforeEach
+    void setUp() {
+        matchingService = new SwapMatchingService(mock(UserRepository.class));
+    }
+
+    @Test
+    void findsMutualPartnersRankedByQualificationAndTitle() {
+        matchingService.index(user(1L, "Kigali", "Teacher", "Musanze", "BSc"));
+        matchingService.index(user(2L, "Musanze", "Teacher", "Kigali", "BSc"));
+        matchingService.index(user(3L, "Musanze", "Nurse", "Kigali", "Diploma"));
+        matchingService.index(user(4L, "Musanze", "Teacher", "Huye", "BSc"));
+
+        List<SwapCandidateDTO> candidates = matchingService.findCandidates(1L, 10);
+
+        assertThat(candidates).extracting(SwapCandidateDTO::getUserId).containsExactly("2", "3");
+        assertThat(candidates.get(0).getScore()).isGreaterThan(candidates.get(1).getScore());
+        assertThat(matchingService.findCandidates(1L, -1)).extracting(SwapCandidateDTO::getUserId).containsExactly("2");
+    }
+
+    @Test
+    void movesUserBetweenRoutesWhenLocationChanges() {
+        matchingService.index(user(1L, "Kigali", "Teacher", "Musanze", "BSc"));
+        matchingService.index(user(2L, "Musanze", "Teacher", "Kigali", "BSc"));
+
+        matchingService.onUserChanged(new UserChangedEvent(user(2L, "Huye", "Teacher", "Kigali", "BSc"), false));
+        assertThat(matchingService.findCandidates(1L, 10)).isEmpty();
+
+        matchingService.onUserChanged(new UserChangedEvent(user(2L, "Musanze", "Teacher", "Kigali", "BSc"), false));
+        assertThat(matchingService.findCandidates(1L, 10)).hasSize(1);
+
+        matchingService.onUserChanged(new UserChangedEvent(user(2L, "Musanze", "Teacher", "Kigali", "BSc"), true));
+        assertThat(matchingService.findCandidates(1L, 10)).isEmpty();
+    }
+
+    private static User user(Long id, String homeLocation, String jobTitle, String jobLocation, String qualification) {
+        Job job = new Job(id, "", jobTitle, jobLocation);
+        return new User(id, "User " + id, "user" + id + "@gov.rw", null, "NORMALUSER", homeLocation, qualification, job);
+    }
+}
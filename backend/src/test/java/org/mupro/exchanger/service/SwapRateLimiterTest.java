@@ -0,0 +1,55 @@
+package org.mupro.exchanger.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SwapRateLimiterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final SwapRateLimiter limiter = new SwapRateLimiter("NORMALUSER=3/PT1H,ADMIN=10/PT1H",
+            Duration.ofMinutes(10), registry);
+
+    @Test
+    void limitsPerUserAndRole() {
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire(1L, "NORMALUSER")).isZero();
+        }
+        assertThat(limiter.tryAcquire(1L, "NORMALUSER")).isPositive();
+        assertThat(limiter.tryAcquire(2L, "NORMALUSER")).isZero();
+        for (int i = 0; i < 10; i++) {
+            assertThat(limiter.tryAcquire(3L, "ADMIN")).isZero();
+        }
+        assertThat(registry.get("swap.rate_limit.rejections").tag("role", "NORMALUSER").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void concurrentCallersNeverExceedTheCapacity() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Long>> results = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                results.add(executor.submit(() -> limiter.tryAcquire(7L, "ADMIN")));
+            }
+            int granted = 0;
+            for (Future<Long> result : results) {
+                if (result.get(5, TimeUnit.SECONDS) == 0) {
+                    granted++;
+                }
+            }
+            assertThat(granted).isEqualTo(10);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
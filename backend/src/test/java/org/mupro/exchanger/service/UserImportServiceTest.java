@@ -0,0 +1,81 @@
+package org.mupro.exchanger.service;
+
+import org.junit.jupiter.api.Test;
+import org.mupro.exchanger.dto.UserImportErrorDTO;
+import org.mupro.exchanger.dto.UserImportResultDTO;
+import org.mupro.exchanger.model.Job;
+import org.mupro.exchanger.model.User;
+import org.mupro.exchanger.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "users.import.chunk-size=2")
+@ActiveProfiles("h2")
+class UserImportServiceTest {
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JobService jobService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Test
+    void importsValidRowsAndReportsTheRest() throws Exception {
+        Job job = jobService.saveJob(new Job("", "Nurse", "Musanze"));
+        userRepository.save(new User("Existing", "import-existing@gov.rw", null, "NORMALUSER"));
+        String csv = "name,email,password,role,homeLocation,jobId,jobTitle,jobLocation\r\n"
+                + "\"Mugisha, Eric\",import-a@gov.rw,secret-a,,Kigali," + job.getId() + ",,\r\n"
+                + "Keza,import-b@gov.rw,secret-b,NORMALUSER,Huye,,nurse,MUSANZE\r\n"
+                + "Again,import-a@gov.rw,secret-c,,,,,\r\n"
+                + "Existing,import-existing@gov.rw,secret-d,,,,,\r\n"
+                + "No Password,import-e@gov.rw,,,,,,\r\n"
+                + "Bad Job,import-f@gov.rw,secret-f,,,999999999,,\r\n"
+                + "Bad Role,import-g@gov.rw,secret-g,ROOT,,,,\r\n"
+                + "Plain,import-h@gov.rw,secret-h,ADMIN,,,,\r\n";
+
+        UserImportResultDTO result = userImportService.importUsers(DataFormat.CSV,
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(result.getReceived()).isEqualTo(8);
+        assertThat(result.getImported()).isEqualTo(3);
+        assertThat(result.getFailed()).isEqualTo(5);
+        assertThat(result.getErrors()).extracting(UserImportErrorDTO::getLine)
+                .containsExactlyInAnyOrder(4L, 5L, 6L, 7L, 8L);
+
+        User imported = userRepository.findByEmail("import-a@gov.rw").orElseThrow();
+        assertThat(imported.getName()).isEqualTo("Mugisha, Eric");
+        assertThat(imported.getRole()).isEqualTo("NORMALUSER");
+        assertThat(imported.getJob().getId()).isEqualTo(job.getId());
+        assertThat(passwordEncoder.matches("secret-a", imported.getPassword())).isTrue();
+        assertThat(userRepository.findByEmail("import-b@gov.rw").orElseThrow().getJob().getId())
+                .isEqualTo(job.getId());
+    }
+
+    @Test
+    void ndjsonReportsMalformedLinesAndKeepsGoing() throws Exception {
+        String ndjson = "{\"name\":\"Json One\",\"email\":\"import-json1@gov.rw\",\"password\":\"pw\"}\n"
+                + "{not json}\n"
+                + "\n"
+                + "{\"name\":\"Json Two\",\"email\":\"import-json2@gov.rw\",\"password\":\"pw\"}\n";
+
+        UserImportResultDTO result = userImportService.importUsers(DataFormat.NDJSON,
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getErrors()).extracting(UserImportErrorDTO::getLine).containsExactly(2L);
+        assertThat(userRepository.findByEmail("import-json2@gov.rw")).isPresent();
+    }
+}
@@ -0,0 +1,93 @@
+package org.mupro.exchanger.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserSearchIndexTest {
+
+    private final UserSearchIndex index = new UserSearchIndex();
+
+    @Test
+    void toleratesTyposAndAccents() {
+        index.put(entry(1L, "Aimé Habimana", "BSc", "Huye"));
+        index.put(entry(2L, "Grace Uwase", "MSc", "Musanze"));
+
+        assertThat(ids(index.search("habimna", 10))).containsExactly(1L);
+        assertThat(ids(index.search("aime", 10))).containsExactly(1L);
+        assertThat(ids(index.search("musnze", 10))).containsExactly(2L);
+    }
+
+    @Test
+    void ranksNameAboveOtherFieldsAndCoverageAboveSingleField() {
+        index.put(entry(1L, "Jean Kigali", "BSc", "Huye"));
+        index.put(entry(2L, "Eric Mugisha", "BSc", "Kigali"));
+        index.put(entry(3L, "Jean Bosco", "BSc", "Kigali"));
+
+        assertThat(ids(index.search("kigali", 10))).startsWith(1L);
+        assertThat(ids(index.search("jean kigali", 10))).containsExactly(1L, 3L, 2L);
+    }
+
+    @Test
+    void followsUpdatesRemovalsAndCompaction() {
+        index.put(entry(1L, "Claudine Mukamana", "BSc", "Rubavu"));
+        index.put(entry(2L, "Patrick Nshuti", "BSc", "Rubavu"));
+        index.put(entry(1L, "Claudine Ingabire", "BSc", "Rubavu"));
+        index.remove(2L);
+
+        assertThat(index.search("mukamana", 10)).isEmpty();
+        assertThat(ids(index.search("ingabire", 10))).containsExactly(1L);
+        assertThat(index.search("nshuti", 10)).isEmpty();
+        assertThat(index.tombstones()).isEqualTo(2);
+
+        index.compact();
+
+        assertThat(index.tombstones()).isZero();
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(ids(index.search("claudine rubavu", 10))).containsExactly(1L);
+    }
+
+    @Test
+    void compactionKeepsWritesMadeWhileItBuilds() {
+        index.put(entry(1L, "Olivier Niyonzima", "BSc", "Karongi"));
+        index.put(entry(2L, "Diane Umutoni", "BSc", "Karongi"));
+        index.put(entry(3L, "Eric Gatete", "BSc", "Karongi"));
+        index.remove(3L);
+
+        index.compact(() -> {
+            index.put(entry(1L, "Olivier Hakizimana", "BSc", "Karongi"));
+            index.remove(2L);
+            index.put(entry(4L, "Josiane Mukeshimana", "BSc", "Karongi"));
+            // The lists are built without the lock, so searches and writes go on meanwhile
+            assertThat(ids(index.search("hakizimana", 10))).containsExactly(1L);
+        });
+
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.tombstones()).isEqualTo(2);
+        assertThat(ids(index.search("olivier", 10))).containsExactly(1L);
+        assertThat(ids(index.search("mukeshimana", 10))).containsExactly(4L);
+        assertThat(index.search("niyonzima", 10)).isEmpty();
+        assertThat(index.search("umutoni", 10)).isEmpty();
+        assertThat(index.search("gatete", 10)).isEmpty();
+    }
+
+    @Test
+    void returnsAtMostLimitHits() {
+        for (long id = 1; id <= 50; id++) {
+            index.put(entry(id, "Nyiramana " + id, "BSc", "Nyagatare"));
+        }
+
+        assertThat(index.search("nyiramana", 5)).hasSize(5);
+        assertThat(index.search("  ", 5)).isEmpty();
+    }
+
+    private static UserSearchIndex.Entry entry(Long id, String name, String qualification, String homeLocation) {
+        return new UserSearchIndex.Entry(id, name, qualification, homeLocation, "Teacher", "Nyanza");
+    }
+
+    private static List<Long> ids(List<UserSearchIndex.Hit> hits) {
+        return hits.stream().map(hit -> hit.entry().userId()).toList();
+    }
+}
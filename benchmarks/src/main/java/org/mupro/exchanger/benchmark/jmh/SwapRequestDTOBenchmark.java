@@ -0,0 +1,47 @@
+package org.mupro.exchanger.benchmark.jmh;
+
+import org.mupro.exchanger.dto.SwapRequestDTO;
+import org.mupro.exchanger.model.Job;
+import org.mupro.exchanger.model.SwapRequest;
+import org.mupro.exchanger.model.SwapStatus;
+import org.mupro.exchanger.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of mapping one swap request entity to the DTO the list endpoints return.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SwapRequestDTOBenchmark {
+
+    private SwapRequest request;
+
+    @Setup
+    public void setUp() {
+        User sender = new User(1L, "Alice Uwase", "alice@gov.rw", null, "NORMALUSER", "Musanze", "BSc",
+                new Job(1L, "", "Teacher", "Huye"));
+        User receiver = new User(2L, "Eric Habimana", "eric@gov.rw", null, "NORMALUSER", "Huye", "BSc",
+                new Job(2L, "", "Teacher", "Musanze"));
+        request = new SwapRequest(42L, sender, receiver, SwapStatus.CONFIRMED_BY_USER2);
+    }
+
+    @Benchmark
+    public SwapRequestDTO fromEntity() {
+        return SwapRequestDTO.fromEntity(request);
+    }
+}
@@ -0,0 +1,89 @@
+package org.mupro.exchanger.benchmark.jmh;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.mupro.exchanger.dto.UserDetailDTO;
+import org.mupro.exchanger.dto.UserSummaryDTO;
+import org.mupro.exchanger.model.Job;
+import org.mupro.exchanger.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of a single user and of a directory page of 50, as the {@link User} entity the user
+ * endpoints used to return and as the {@link UserDetailDTO} / {@link UserSummaryDTO} they return now.
+ * Payload sizes are printed at the end of each fork.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserJsonBenchmark {
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+
+    private User user;
+    private List<User> page;
+    private UserDetailDTO userDetail;
+    private List<UserSummaryDTO> summaryPage;
+
+    @Setup
+    public void setUp() {
+        page = new ArrayList<>(50);
+        for (long id = 1; id <= 50; id++) {
+            page.add(new User(id, "User " + id, "user" + id + "@gov.rw",
+                    "$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z7dGSY2bvGqfJY3d8EZPhbdu", "NORMALUSER",
+                    "district-" + (id % 30), "BSc", new Job(id, "Primary school teacher", "Teacher", "district-" + (id % 7))));
+        }
+        user = page.get(0);
+        userDetail = UserDetailDTO.fromEntity(user);
+        summaryPage = new ArrayList<>(50);
+        for (User entity : page) {
+            Job job = entity.getJob();
+            summaryPage.add(new UserSummaryDTO(entity.getId(), entity.getName(), entity.getEmail(), entity.getRole(),
+                    entity.getHomeLocation(), entity.getQualification(), job.getTitle(), job.getLocation()));
+        }
+    }
+
+    @TearDown
+    public void printPayloadSizes() throws JsonProcessingException {
+        System.out.printf("%npayload bytes: user entity=%d detail=%d, page entity=%d summary=%d%n",
+                singleUser().length, singleUserDetail().length, directoryPage().length, directoryPageSummary().length);
+    }
+
+    @Benchmark
+    public byte[] singleUser() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(user);
+    }
+
+    @Benchmark
+    public byte[] directoryPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] singleUserDetail() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(userDetail);
+    }
+
+    @Benchmark
+    public byte[] directoryPageSummary() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(summaryPage);
+    }
+}
@@ -0,0 +1,86 @@
+package org.mupro.exchanger.benchmark.jmh;
+
+import org.mupro.exchanger.service.UserSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search latency percentiles over a synthetic index of {@code users} entries built from a small vocabulary, so
+ * common trigrams have posting lists in the hundreds of thousands, as popular locations would. Also measures
+ * the cost of an incremental update. Needs a few GB of heap at 1M users.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class UserSearchBenchmark {
+
+    private static final String[] FIRST_NAMES = {"Jean", "Aimé", "Grace", "Eric", "Claudine", "Patrick", "Divine",
+            "Emmanuel", "Alice", "Olivier", "Diane", "Innocent", "Josiane", "Fabrice", "Solange", "Théoneste"};
+    private static final String[] LAST_NAMES = {"Habimana", "Uwase", "Mugisha", "Mukamana", "Nshuti", "Ingabire",
+            "Niyonzima", "Uwimana", "Hakizimana", "Mutesi", "Nsengiyumva", "Umutoni", "Bizimana", "Iradukunda"};
+    private static final String[] LOCATIONS = {"Kigali", "Huye", "Musanze", "Rubavu", "Nyagatare", "Rusizi",
+            "Muhanga", "Nyanza", "Karongi", "Kayonza", "Rwamagana", "Gicumbi", "Nyamagabe", "Ngoma", "Bugesera"};
+    private static final String[] TITLES = {"Teacher", "Nurse", "Accountant", "Agronomist", "Head Teacher",
+            "Veterinary Officer", "Clinical Officer", "Land Officer", "Laboratory Technician", "Social Worker"};
+    private static final String[] QUALIFICATIONS = {"A2", "A1", "A0", "BSc", "MSc", "PhD", "Diploma"};
+
+    @Param({"1000000"})
+    public int users;
+
+    @Param({"habimana", "habimna", "jean kigali", "veterinary officer musanze", "nyagatre"})
+    public String query;
+
+    private UserSearchIndex index;
+    private long nextUpdate;
+
+    @Setup
+    public void setUp() {
+        index = new UserSearchIndex();
+        SplittableRandom random = new SplittableRandom(42);
+        for (long id = 1; id <= users; id++) {
+            index.put(randomEntry(id, random));
+        }
+        nextUpdate = 1;
+    }
+
+    @Benchmark
+    public List<UserSearchIndex.Hit> searchTop20() {
+        return index.search(query, 20);
+    }
+
+    @Benchmark
+    public void updateOne() {
+        // Tombstones accumulate over the run, as they would between compactions
+        long id = nextUpdate;
+        nextUpdate = nextUpdate % users + 1;
+        index.put(randomEntry(id, new SplittableRandom(id)));
+    }
+
+    private static UserSearchIndex.Entry randomEntry(long id, SplittableRandom random) {
+        String name = pick(FIRST_NAMES, random) + " " + pick(LAST_NAMES, random) + " " + id;
+        return new UserSearchIndex.Entry(id, name, pick(QUALIFICATIONS, random), pick(LOCATIONS, random),
+                pick(TITLES, random), pick(LOCATIONS, random));
+    }
+
+    private static String pick(String[] values, SplittableRandom random) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,223 @@
+package org.mupro.exchanger.benchmark.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.mupro.exchanger.BackendApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Starts the backend in-process on an in-memory database and drives the main user journey over HTTP:
+ * two users register and log in, the admin lists the directory, one user sends a swap, the other confirms
+ * it and the admin approves it. Per-step throughput and latency percentiles are printed and written as
+ * JSON to the path given as the first argument, so runs can be compared across commits.
+ * <p>
+ * System properties: {@code bench.pairs} (default 200), {@code bench.concurrency} (default 32),
+ * {@code bench.label} (stored in the results, e.g. a commit id), {@code bench.profiles} (extra Spring profiles
+ * to start the backend with, e.g. {@code virtual}).
+ */
+public class LoadTestMain {
+
+    private static final String PASSWORD = "load-test-password";
+
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, StepRecorder> steps = new LinkedHashMap<>();
+    private final String baseUrl;
+    private String adminToken;
+
+    LoadTestMain(String baseUrl) {
+        this.baseUrl = baseUrl;
+        for (String step : List.of("register", "login", "listUsers", "send", "confirm", "approve")) {
+            steps.put(step, new StepRecorder(step));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path output = Path.of(args.length > 0 ? args[0] : "target/load-results.json");
+        int pairs = Integer.getInteger("bench.pairs", 200);
+        int concurrency = Integer.getInteger("bench.concurrency", 32);
+        String label = System.getProperty("bench.label", "local");
+        List<String> profiles = new ArrayList<>(List.of("loadtest"));
+        for (String profile : System.getProperty("bench.profiles", "").split(",")) {
+            if (!profile.isBlank()) {
+                profiles.add(profile.trim());
+            }
+        }
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(BackendApplication.class)
+                .profiles(profiles.toArray(String[]::new))
+                .run();
+        try {
+            LoadTestMain load = new LoadTestMain("http://localhost:" + context.getEnvironment().getProperty("local.server.port"));
+            load.setUp();
+            double wallSeconds = load.run(pairs, concurrency);
+            Map<String, Object> results = load.results(label, profiles, pairs, concurrency, wallSeconds);
+            Files.createDirectories(output.toAbsolutePath().getParent());
+            load.objectMapper.writerWithDefaultPrettyPrinter().writeValue(output.toFile(), results);
+            load.printSummary(wallSeconds);
+            System.out.println("Results written to " + output.toAbsolutePath());
+        } finally {
+            context.close();
+        }
+    }
+
+    private void setUp() throws IOException, InterruptedException {
+        Map<String, Object> admin = new LinkedHashMap<>();
+        admin.put("name", "Load Admin");
+        admin.put("email", "admin@load.test");
+        admin.put("password", PASSWORD);
+        admin.put("role", "ADMIN");
+        send("POST", "/api/users/register", admin, null);
+        adminToken = send("POST", "/api/users/login",
+                Map.of("email", "admin@load.test", "password", PASSWORD), null).get("token").asText();
+    }
+
+    private double run(int pairs, int concurrency) throws Exception {
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> futures = new ArrayList<>(pairs);
+            for (int pair = 0; pair < pairs; pair++) {
+                int id = pair;
+                futures.add(workers.submit(() -> {
+                    journey(id);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get(5, TimeUnit.MINUTES);
+                } catch (Exception e) {
+                    // The failing step has already been counted; the remaining pairs keep going
+                }
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+        return (System.nanoTime() - start) / 1e9;
+    }
+
+    private void journey(int pair) throws IOException, InterruptedException {
+        long senderJob = createJob("Teacher", "district-" + (pair % 30));
+        long receiverJob = createJob("Teacher", "district-" + ((pair + 1) % 30));
+        long senderId = timed("register", () -> register(pair, "a", senderJob, "district-" + ((pair + 1) % 30)))
+                .get("id").asLong();
+        long receiverId = timed("register", () -> register(pair, "b", receiverJob, "district-" + (pair % 30)))
+                .get("id").asLong();
+
+        String senderToken = timed("login", () -> login(pair, "a")).get("token").asText();
+        String receiverToken = timed("login", () -> login(pair, "b")).get("token").asText();
+
+        timed("listUsers", () -> send("GET", "/api/users/all?size=50", null, adminToken));
+
+        long swapId = timed("send", () -> send("POST", "/api/swaps/send",
+                Map.of("requesterId", String.valueOf(senderId), "targetId", String.valueOf(receiverId)), senderToken))
+                .get("id").asLong();
+        timed("confirm", () -> send("PUT", "/api/swaps/confirm/" + swapId, null, receiverToken));
+        timed("approve", () -> send("PUT", "/api/swaps/approve/" + swapId, null, adminToken));
+    }
+
+    private long createJob(String title, String location) throws IOException, InterruptedException {
+        return send("POST", "/api/jobs", Map.of("title", title, "location", location, "description", ""), adminToken)
+                .get("id").asLong();
+    }
+
+    private JsonNode register(int pair, String side, long jobId, String homeLocation)
+            throws IOException, InterruptedException {
+        Map<String, Object> user = new LinkedHashMap<>();
+        user.put("name", "Load " + side + pair);
+        user.put("email", side + pair + "@load.test");
+        user.put("password", PASSWORD);
+        user.put("role", "NORMALUSER");
+        user.put("homeLocation", homeLocation);
+        user.put("qualification", "BSc");
+        user.put("job", Map.of("id", jobId));
+        return send("POST", "/api/users/register", user, null);
+    }
+
+    private JsonNode login(int pair, String side) throws IOException, InterruptedException {
+        return send("POST", "/api/users/login", Map.of("email", side + pair + "@load.test", "password", PASSWORD), null);
+    }
+
+    private JsonNode send(String method, String path, Object body, String token) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Accept", "application/json");
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        if (body != null) {
+            request.header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+        } else {
+            request.method(method, HttpRequest.BodyPublishers.noBody());
+        }
+        HttpResponse<byte[]> response = http.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() >= 400) {
+            throw new IOException(method + " " + path + " returned " + response.statusCode());
+        }
+        return response.body().length == 0 ? objectMapper.nullNode() : objectMapper.readTree(response.body());
+    }
+
+    private JsonNode timed(String step, Call call) throws IOException, InterruptedException {
+        StepRecorder recorder = steps.get(step);
+        long start = System.nanoTime();
+        try {
+            JsonNode result = call.execute();
+            recorder.record(System.nanoTime() - start);
+            return result;
+        } catch (IOException | RuntimeException e) {
+            recorder.fail();
+            throw e;
+        }
+    }
+
+    private Map<String, Object> results(String label, List<String> profiles, int pairs, int concurrency,
+                                        double wallSeconds) {
+        Map<String, Object> results = new LinkedHashMap<>();
+        results.put("label", label);
+        results.put("profiles", profiles);
+        results.put("timestamp", Instant.now().toString());
+        results.put("javaVersion", System.getProperty("java.version"));
+        results.put("pairs", pairs);
+        results.put("concurrency", concurrency);
+        results.put("wallSeconds", wallSeconds);
+        results.put("steps", steps.values().stream().map(recorder -> recorder.summary(wallSeconds)).toList());
+        return results;
+    }
+
+    private void printSummary(double wallSeconds) {
+        System.out.printf("%-10s %8s %7s %10s %9s %9s %9s %9s%n",
+                "step", "count", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        for (StepRecorder recorder : steps.values()) {
+            Map<String, Object> summary = recorder.summary(wallSeconds);
+            System.out.printf("%-10s %8d %7d %10.1f %9.2f %9.2f %9.2f %9.2f%n", summary.get("step"),
+                    summary.get("count"), summary.get("errors"), summary.get("perSecond"),
+                    summary.get("p50Millis"), summary.get("p90Millis"), summary.get("p99Millis"), summary.get("maxMillis"));
+        }
+    }
+
+    @FunctionalInterface
+    private interface Call {
+        JsonNode execute() throws IOException, InterruptedException;
+    }
+}
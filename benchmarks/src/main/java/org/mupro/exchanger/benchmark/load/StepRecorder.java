@@ -0,0 +1,54 @@
+package org.mupro.exchanger.benchmark.load;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Latencies of one step of the load journey. Samples are kept in full so percentiles are exact.
+ */
+class StepRecorder {
+
+    private final String step;
+    private long[] samples = new long[1024];
+    private int count;
+    private int errors;
+
+    StepRecorder(String step) {
+        this.step = step;
+    }
+
+    synchronized void record(long nanos) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+    }
+
+    synchronized void fail() {
+        errors++;
+    }
+
+    synchronized Map<String, Object> summary(double wallSeconds) {
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("step", step);
+        summary.put("count", count);
+        summary.put("errors", errors);
+        summary.put("perSecond", count / wallSeconds);
+        summary.put("p50Millis", percentile(sorted, 0.50));
+        summary.put("p90Millis", percentile(sorted, 0.90));
+        summary.put("p99Millis", percentile(sorted, 0.99));
+        summary.put("maxMillis", count == 0 ? 0.0 : sorted[count - 1] / 1e6);
+        return summary;
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+}
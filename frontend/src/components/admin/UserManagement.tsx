@@ -1,26 +1,29 @@
-import { useState } from 'react';
-import { User } from '../../context/AuthContext';
+import { FormEvent, useState } from 'react';
+import { AdminStats } from '../../services/adminService';
+import { useUserDirectory } from '../../hooks/useUserDirectory';
 import Card from '../common/Card';
+import Button from '../common/Button';
 import { Search, UserCog, Users } from 'lucide-react';
 
 interface UserManagementProps {
-  users: User[];
+  stats: AdminStats | null;
 }
 
-const UserManagement = ({ users }: UserManagementProps) => {
-  const [searchTerm, setSearchTerm] = useState('');
+const UserManagement = ({ stats }: UserManagementProps) => {
+  const [locationInput, setLocationInput] = useState('');
+  const [location, setLocation] = useState('');
   const [filter, setFilter] = useState<'ALL' | 'NORMALUSER' | 'ADMIN'>('ALL');
 
-  const filteredUsers = users.filter(
-    (user) =>
-      (filter === 'ALL' || user.role === filter) &&
-      (user.email.toLowerCase().includes(searchTerm.toLowerCase()) ||
-        (user.jobRole && user.jobRole.toLowerCase().includes(searchTerm.toLowerCase())) ||
-        (user.address && user.address.toLowerCase().includes(searchTerm.toLowerCase())))
+  // Role and location are filtered by the server, one page at a time
+  const { users, hasMore, isLoading, loadMore } = useUserDirectory(
+    filter === 'ALL' ? undefined : filter,
+    location
   );
 
-  const normalUsers = users.filter(user => user.role === 'NORMALUSER');
-  const adminUsers = users.filter(user => user.role === 'ADMIN');
+  const applyLocation = (e: FormEvent) => {
+    e.preventDefault();
+    setLocation(locationInput);
+  };
 
   return (
     <div className="space-y-6 animate-slide-up">
@@ -36,7 +39,7 @@ const UserManagement = ({ users }: UserManagementProps) => {
             </div>
             <div>
               <p className="text-gray-500 text-sm">All Users</p>
-              <p className="text-2xl font-bold text-gray-900">{users.length}</p>
+              <p className="text-2xl font-bold text-gray-900">{stats?.totalUsers ?? 0}</p>
             </div>
           </div>
         </Card>
@@ -48,7 +51,7 @@ const UserManagement = ({ users }: UserManagementProps) => {
             </div>
             <div>
               <p className="text-gray-500 text-sm">Normal Users</p>
-              <p className="text-2xl font-bold text-gray-900">{normalUsers.length}</p>
+              <p className="text-2xl font-bold text-gray-900">{stats?.usersByRole['NORMALUSER'] ?? 0}</p>
             </div>
           </div>
         </Card>
@@ -60,7 +63,7 @@ const UserManagement = ({ users }: UserManagementProps) => {
             </div>
             <div>
               <p className="text-gray-500 text-sm">Administrators</p>
-              <p className="text-2xl font-bold text-gray-900">{adminUsers.length}</p>
+              <p className="text-2xl font-bold text-gray-900">{stats?.usersByRole['ADMIN'] ?? 0}</p>
             </div>
           </div>
         </Card>
@@ -68,18 +71,18 @@ const UserManagement = ({ users }: UserManagementProps) => {
 
       <Card>
         <div className="flex flex-col md:flex-row space-y-4 md:space-y-0 md:space-x-4 mb-6">
-          <div className="relative md:flex-grow">
+          <form className="relative md:flex-grow" onSubmit={applyLocation}>
             <div className="absolute inset-y-0 left-0 pl-3 flex items-center pointer-events-none">
               <Search className="h-5 w-5 text-gray-400" />
             </div>
             <input
               type="text"
-              placeholder="Search by email, job role or location..."
+              placeholder="Filter by home location and press Enter..."
               className="pl-10 w-full rounded-md border-gray-300 shadow-sm focus:border-primary-500 focus:ring-primary-500"
-              value={searchTerm}
-              onChange={(e) => setSearchTerm(e.target.value)}
+              value={locationInput}
+              onChange={(e) => setLocationInput(e.target.value)}
             />
-          </div>
+          </form>
           
           <div className="flex space-x-2">
             <button
@@ -115,7 +118,7 @@ const UserManagement = ({ users }: UserManagementProps) => {
           </div>
         </div>
 
-        {filteredUsers.length > 0 ? (
+        {users.length > 0 ? (
           <div className="overflow-x-auto">
             <table className="min-w-full divide-y divide-gray-200">
               <thead className="bg-gray-50">
@@ -147,7 +150,7 @@ const UserManagement = ({ users }: UserManagementProps) => {
                 </tr>
               </thead>
               <tbody className="bg-white divide-y divide-gray-200">
-                {filteredUsers.map((user) => (
+                {users.map((user) => (
                   <tr key={user.id} className="hover:bg-gray-50">
                     <td className="px-6 py-4 whitespace-nowrap">
                       <div className="flex items-center">
@@ -183,7 +186,16 @@ const UserManagement = ({ users }: UserManagementProps) => {
                 ))}
               </tbody>
             </table>
+            {hasMore && (
+              <div className="mt-4 flex justify-center">
+                <Button variant="outline" isLoading={isLoading} onClick={loadMore}>
+                  Load more
+                </Button>
+              </div>
+            )}
           </div>
+        ) : isLoading ? (
+          <div className="py-10 text-center text-gray-500">Loading users...</div>
         ) : (
           <div className="py-10 text-center">
             <div className="inline-flex mx-auto items-center justify-center w-16 h-16 rounded-full bg-gray-100 mb-4">
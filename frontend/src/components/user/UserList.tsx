@@ -1,4 +1,4 @@
-import { useState } from 'react';
+import { FormEvent, useState } from 'react';
 import { toast } from 'react-toastify';
 import { useAuth } from '../../context/AuthContext';
 import { sendSwapRequest } from '../../services/swapService';
@@ -10,22 +10,25 @@ import { Search, UserPlus, MapPin, Briefcase } from 'lucide-react';
 
 interface UserListProps {
   users: User[];
+  hasMore: boolean;
+  isLoadingMore: boolean;
+  onLoadMore: () => void;
+  onLocationFilter: (location: string) => void;
   onRequestSent: () => void;
 }
 
-const UserList = ({ users, onRequestSent }: UserListProps) => {
+const UserList = ({ users, hasMore, isLoadingMore, onLoadMore, onLocationFilter, onRequestSent }: UserListProps) => {
   const { user: currentUser } = useAuth();
-  const [searchTerm, setSearchTerm] = useState('');
+  const [locationInput, setLocationInput] = useState('');
   const [selectedUser, setSelectedUser] = useState<User | null>(null);
   const [isModalOpen, setIsModalOpen] = useState(false);
   const [isLoading, setIsLoading] = useState(false);
 
-  const filteredUsers = users.filter(
-    (user) =>
-      user.email.toLowerCase().includes(searchTerm.toLowerCase()) ||
-      (user.jobRole && user.jobRole.toLowerCase().includes(searchTerm.toLowerCase())) ||
-      (user.address && user.address.toLowerCase().includes(searchTerm.toLowerCase()))
-  );
+  // The location filter is applied by the server, so it runs on submit rather than on every keystroke
+  const applyLocation = (e: FormEvent) => {
+    e.preventDefault();
+    onLocationFilter(locationInput);
+  };
 
   const handleOpenModal = (user: User) => {
     setSelectedUser(user);
@@ -57,22 +60,22 @@ const UserList = ({ users, onRequestSent }: UserListProps) => {
   return (
     <>
       <Card title="Available Users for Job Swap" className="h-full animate-slide-up">
-        <div className="mb-4 relative">
+        <form className="mb-4 relative" onSubmit={applyLocation}>
           <div className="absolute inset-y-0 left-0 pl-3 flex items-center pointer-events-none">
             <Search className="h-5 w-5 text-gray-400" />
           </div>
           <input
             type="text"
-            placeholder="Search by email, job role or location..."
+            placeholder="Filter by home location and press Enter..."
             className="pl-10 w-full rounded-md border-gray-300 shadow-sm focus:border-primary-500 focus:ring-primary-500"
-            value={searchTerm}
-            onChange={(e) => setSearchTerm(e.target.value)}
+            value={locationInput}
+            onChange={(e) => setLocationInput(e.target.value)}
           />
-        </div>
+        </form>
 
-        {filteredUsers.length > 0 ? (
+        {users.length > 0 ? (
           <div className="space-y-4 max-h-[600px] overflow-y-auto pr-2">
-            {filteredUsers.map((user) => (
+            {users.map((user) => (
               <div
                 key={user.id}
                 className="border border-gray-200 rounded-lg p-4 hover:shadow-md transition-shadow"
@@ -116,6 +119,13 @@ const UserList = ({ users, onRequestSent }: UserListProps) => {
                 )}
               </div>
             ))}
+            {hasMore && (
+              <div className="flex justify-center">
+                <Button variant="outline" size="sm" isLoading={isLoadingMore} onClick={onLoadMore}>
+                  Load more
+                </Button>
+              </div>
+            )}
           </div>
         ) : (
           <div className="py-10 text-center">
@@ -0,0 +1,52 @@
+import { useCallback, useEffect, useRef, useState } from 'react';
+import { toast } from 'react-toastify';
+import { User } from '../context/AuthContext';
+import { getUserDirectory } from '../services/userService';
+
+const PAGE_SIZE = 50;
+
+// Pages through the user directory with the filters applied by the server; loadMore appends the next page
+export const useUserDirectory = (role?: string, homeLocation?: string) => {
+  const [users, setUsers] = useState<User[]>([]);
+  const [nextCursor, setNextCursor] = useState<string | null>(null);
+  const [isLoading, setIsLoading] = useState(false);
+  // Responses to a superseded request (filters changed meanwhile) are dropped
+  const latestRequest = useRef(0);
+
+  const load = useCallback(async (cursor?: string) => {
+    const request = ++latestRequest.current;
+    setIsLoading(true);
+    try {
+      const page = await getUserDirectory({
+        role: role || undefined,
+        homeLocation: homeLocation?.trim() || undefined,
+        cursor,
+        size: PAGE_SIZE
+      });
+      if (request !== latestRequest.current) return;
+      setUsers(previous => (cursor ? [...previous, ...page.users] : page.users));
+      setNextCursor(page.nextCursor);
+    } catch (error) {
+      if (request === latestRequest.current) {
+        console.error('Error fetching users:', error);
+        toast.error('Failed to load users. Please try again.');
+      }
+    } finally {
+      if (request === latestRequest.current) {
+        setIsLoading(false);
+      }
+    }
+  }, [role, homeLocation]);
+
+  useEffect(() => {
+    load();
+  }, [load]);
+
+  const loadMore = () => {
+    if (nextCursor && !isLoading) {
+      load(nextCursor);
+    }
+  };
+
+  return { users, hasMore: nextCursor !== null, isLoading, loadMore };
+};
@@ -7,7 +7,8 @@ import PendingSwapsList from '../components/admin/PendingSwapsList';
 import UserManagement from '../components/admin/UserManagement';
 import Card from '../components/common/Card';
 import { getPendingSwapRequests } from '../services/swapService';
-import { getAllUsers } from '../services/userService';
+import { getUserDirectory } from '../services/userService';
+import { getAdminStats, AdminStats } from '../services/adminService';
 import { SwapRequest } from '../services/swapService';
 import { User } from '../context/AuthContext';
 import { LineChart, Users, UserCheck } from 'lucide-react';
@@ -15,7 +16,8 @@ import { LineChart, Users, UserCheck } from 'lucide-react';
 const AdminDashboard = () => {
   const { user } = useAuth();
   const [pendingSwaps, setPendingSwaps] = useState<SwapRequest[]>([]);
-  const [allUsers, setAllUsers] = useState<User[]>([]);
+  const [stats, setStats] = useState<AdminStats | null>(null);
+  const [recentUsers, setRecentUsers] = useState<User[]>([]);
   const [isLoading, setIsLoading] = useState(true);
 
   useEffect(() => {
@@ -23,13 +25,16 @@ const AdminDashboard = () => {
       setIsLoading(true);
       try {
         // Fetch all data in parallel
-        const [swapsData, usersData] = await Promise.all([
+        // Counts come from the server's counters; only the handful of users shown are downloaded
+        const [swapsData, statsData, usersPage] = await Promise.all([
           getPendingSwapRequests(),
-          getAllUsers()
+          getAdminStats(),
+          getUserDirectory({ size: 5 })
         ]);
         
         setPendingSwaps(swapsData);
-        setAllUsers(usersData);
+        setStats(statsData);
+        setRecentUsers(usersPage.users);
       } catch (error) {
         console.error('Error fetching admin dashboard data:', error);
         toast.error('Failed to load dashboard data. Please try again.');
@@ -55,8 +60,8 @@ const AdminDashboard = () => {
     return <LoadingSpinner />;
   }
 
-  const normalUsers = allUsers.filter(u => u.role === 'NORMALUSER');
-  const adminUsers = allUsers.filter(u => u.role === 'ADMIN');
+  const normalUserCount = stats?.usersByRole['NORMALUSER'] ?? 0;
+  const adminCount = stats?.usersByRole['ADMIN'] ?? 0;
 
   return (
     <div className="animate-fade-in">
@@ -75,17 +80,17 @@ const AdminDashboard = () => {
                     </div>
                     <div>
                       <p className="text-gray-500 text-sm">Total Users</p>
-                      <p className="text-2xl font-bold text-gray-900">{allUsers.length}</p>
+                      <p className="text-2xl font-bold text-gray-900">{stats?.totalUsers ?? 0}</p>
                     </div>
                   </div>
                   <div className="mt-4 text-sm">
                     <div className="flex justify-between">
                       <span className="text-gray-600">Normal Users:</span>
-                      <span className="font-medium">{normalUsers.length}</span>
+                      <span className="font-medium">{normalUserCount}</span>
                     </div>
                     <div className="flex justify-between">
                       <span className="text-gray-600">Admins:</span>
-                      <span className="font-medium">{adminUsers.length}</span>
+                      <span className="font-medium">{adminCount}</span>
                     </div>
                   </div>
                 </Card>
@@ -157,9 +162,9 @@ const AdminDashboard = () => {
                 </Card>
                 
                 <Card title="Recent Users">
-                  {allUsers.length > 0 ? (
+                  {recentUsers.length > 0 ? (
                     <div className="space-y-4 max-h-[400px] overflow-y-auto">
-                      {allUsers.slice(0, 5).map((u) => (
+                      {recentUsers.map((u) => (
                         <div key={u.id} className="p-4 border rounded-lg">
                           <div className="flex justify-between">
                             <span className="font-medium">{u.email}</span>
@@ -201,7 +206,7 @@ const AdminDashboard = () => {
         />
         <Route 
           path="/users" 
-          element={<UserManagement users={allUsers} />} 
+          element={<UserManagement stats={stats} />} 
         />
         <Route path="*" element={<Navigate to="/admin-dashboard" replace />} />
       </Routes>
@@ -6,18 +6,19 @@ import LoadingSpinner from '../components/common/LoadingSpinner';
 import UserProfile from '../components/user/UserProfile';
 import UserList from '../components/user/UserList';
 import SwapRequestsList from '../components/user/SwapRequestsList';
-import { getAllUsers } from '../services/userService';
+import { useUserDirectory } from '../hooks/useUserDirectory';
 import { 
   getUserSwapRequests, 
   getSentSwapRequests, 
   getReceivedSwapRequests 
 } from '../services/swapService';
-import { User } from '../context/AuthContext';
 import { SwapRequest } from '../services/swapService';
 
 const NormalUserDashboard = () => {
   const { user } = useAuth();
-  const [availableUsers, setAvailableUsers] = useState<User[]>([]);
+  const [location, setLocation] = useState('');
+  // Paged and filtered by the server; more pages load on request
+  const directory = useUserDirectory('NORMALUSER', location);
   const [sentRequests, setSentRequests] = useState<SwapRequest[]>([]);
   const [receivedRequests, setReceivedRequests] = useState<SwapRequest[]>([]);
   const [isLoading, setIsLoading] = useState(true);
@@ -29,14 +30,11 @@ const NormalUserDashboard = () => {
       setIsLoading(true);
       try {
         // Fetch all data in parallel
-        const [usersData, sentData, receivedData] = await Promise.all([
-          getAllUsers(),
+        const [sentData, receivedData] = await Promise.all([
           getSentSwapRequests(user.id),
           getReceivedSwapRequests(user.id)
         ]);
         
-        // Filter out current user from available users
-        setAvailableUsers(usersData.filter(u => u.id !== user.id && u.role === 'NORMALUSER'));
         setSentRequests(sentData);
         setReceivedRequests(receivedData);
       } catch (error) {
@@ -71,6 +69,9 @@ const NormalUserDashboard = () => {
     return <LoadingSpinner />;
   }
 
+  // Filter out current user from available users
+  const availableUsers = directory.users.filter(u => u.id !== user?.id);
+
   return (
     <div className="animate-fade-in">
       <Routes>
@@ -81,6 +82,10 @@ const NormalUserDashboard = () => {
               <div className="lg:col-span-2">
                 <UserList 
                   users={availableUsers} 
+                  hasMore={directory.hasMore}
+                  isLoadingMore={directory.isLoading}
+                  onLoadMore={directory.loadMore}
+                  onLocationFilter={setLocation}
                   onRequestSent={refreshRequests} 
                 />
               </div>
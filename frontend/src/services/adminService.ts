@@ -0,0 +1,17 @@
+import api from './api';
+
+// Counters kept by the server; cheap to fetch, unlike counting a downloaded user list
+export interface AdminStats {
+  totalUsers: number;
+  usersByRole: Record<string, number>;
+  usersByJobLocation: Record<string, number>;
+  swapsByStatus: Record<string, number>;
+  swapsCreatedByDay: Record<string, number>;
+  reconciledAt: string | null;
+}
+
+// Get the admin dashboard statistics
+export const getAdminStats = async () => {
+  const response = await api.get<AdminStats>('/admin/stats');
+  return response.data;
+};
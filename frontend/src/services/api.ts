@@ -9,15 +9,15 @@ const api = axios.create({
   },
 });
 
-// Add a request interceptor to attach auth headers
+// Add a request interceptor to attach the access token
 api.interceptors.request.use(
   (config) => {
-    // Check for stored credentials
-    const email = localStorage.getItem('email');
-    const password = localStorage.getItem('tempPassword');
-    
-    if (email && password && !config.headers.Authorization) {
-      config.headers.Authorization = `Basic ${btoa(`${email}:${password}`)}`;
+    // localStorage is the only source of truth, so a header left over from an earlier session never wins
+    const token = localStorage.getItem('token');
+    if (token) {
+      config.headers.Authorization = `Bearer ${token}`;
+    } else {
+      delete config.headers.Authorization;
     }
     
     return config;
@@ -27,12 +27,50 @@ api.interceptors.request.use(
   }
 );
 
+// Exchange the refresh token for a new token pair; concurrent 401s share one refresh call
+let refreshPromise: Promise<string> | null = null;
+
+const refreshAccessToken = () => {
+  if (!refreshPromise) {
+    const refreshToken = localStorage.getItem('refreshToken');
+    refreshPromise = axios
+      .post(`${api.defaults.baseURL}/users/refresh`, { refreshToken })
+      .then((response) => {
+        localStorage.setItem('token', response.data.token);
+        localStorage.setItem('refreshToken', response.data.refreshToken);
+        return response.data.token as string;
+      })
+      .finally(() => {
+        refreshPromise = null;
+      });
+  }
+  return refreshPromise;
+};
+
 // Add a response interceptor to handle errors globally
 api.interceptors.response.use(
   (response) => {
     return response;
   },
-  (error) => {
+  async (error) => {
+    const originalRequest = error.config;
+    if (
+      error.response?.status === 401 &&
+      originalRequest &&
+      !originalRequest._retried &&
+      !originalRequest.url.includes('/users/login') &&
+      localStorage.getItem('refreshToken')
+    ) {
+      originalRequest._retried = true;
+      try {
+        const token = await refreshAccessToken();
+        originalRequest.headers.Authorization = `Bearer ${token}`;
+        return api(originalRequest);
+      } catch {
+        // Fall through to the normal 401 handling below
+      }
+    }
+
     let errorMessage = 'An unexpected error occurred';
     
     if (error.response) {
@@ -48,8 +86,10 @@ api.interceptors.response.use(
           // If we get a 401, we should log the user out
           if (window.location.pathname !== '/login') {
             // Clear stored credentials
-            localStorage.removeItem('email');
-            localStorage.removeItem('tempPassword');
+            localStorage.removeItem('token');
+            localStorage.removeItem('refreshToken');
+            localStorage.removeItem('user');
+            delete api.defaults.headers.common['Authorization'];
             // Redirect to login page after a short delay
             setTimeout(() => {
               window.location.href = '/login';
@@ -1,5 +1,6 @@
 import axios from 'axios';
 import { User } from '../context/AuthContext';
+import api from './api';
 
 const API_URL = 'http://localhost:8080/api';
 
@@ -8,6 +9,7 @@ class AuthService {
     const response = await axios.post(`${API_URL}/users/login`, { email, password });
     if (response.data.token) {
       localStorage.setItem('token', response.data.token);
+      localStorage.setItem('refreshToken', response.data.refreshToken);
       localStorage.setItem('user', JSON.stringify(response.data));
     }
     return response.data;
@@ -20,6 +22,8 @@ class AuthService {
   logout(): void {
     localStorage.removeItem('user');
     localStorage.removeItem('token');
+    localStorage.removeItem('refreshToken');
+    delete api.defaults.headers.common['Authorization'];
   }
 
   getCurrentUser(): User | null {
@@ -1,25 +1,17 @@
-import axios from 'axios';
 import { User } from '../context/AuthContext';
 import api from './api';
 
-const API_URL = 'http://localhost:8080/api';
+// Shared instance: attaches the access token and renews it with the refresh token on 401
+const apiInstance = api;
 
-// Create axios instance with default config
-const apiInstance = axios.create({
-  baseURL: API_URL,
-  headers: {
-    'Content-Type': 'application/json',
-  },
-});
-
-// Add request interceptor to include auth token
-apiInstance.interceptors.request.use((config) => {
-  const token = localStorage.getItem('token');
-  if (token) {
-    config.headers.Authorization = `Bearer ${token}`;
-  }
-  return config;
-});
+export interface UserDirectoryFilters {
+  role?: string;
+  homeLocation?: string;
+  jobLocation?: string;
+  qualification?: string;
+  cursor?: string;
+  size?: number;
+}
 
 export interface UpdateProfileData {
   name?: string;
@@ -28,6 +20,11 @@ export interface UpdateProfileData {
   qualifications?: string[];
 }
 
+export interface UserPage {
+  users: User[];
+  nextCursor: string | null;
+}
+
 class UserService {
   async getProfile(): Promise<User> {
     try {
@@ -61,9 +58,9 @@ class UserService {
     }
   }
 
-  async getAllUsers(): Promise<User[]> {
+  async getUserDirectory(filters: UserDirectoryFilters = {}): Promise<UserPage> {
     try {
-      const response = await apiInstance.get('/users/all');
+      const response = await apiInstance.get<UserPage>('/users/all', { params: filters });
       return response.data;
     } catch (error) {
       console.error('Error fetching users:', error);
@@ -74,7 +71,7 @@ class UserService {
 
 export const getProfile = () => new UserService().getProfile();
 export const updateProfile = (data: UpdateProfileData) => new UserService().updateProfile(data);
-export const getAllUsers = () => new UserService().getAllUsers();
+export const getUserDirectory = (filters?: UserDirectoryFilters) => new UserService().getUserDirectory(filters);
 
 export default new UserService();
 